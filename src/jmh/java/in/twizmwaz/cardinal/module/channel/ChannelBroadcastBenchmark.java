@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.channel;
+
+import com.google.common.collect.Lists;
+import ee.ellytr.chat.ChatConstant;
+import ee.ellytr.chat.LocaleRegistry;
+import ee.ellytr.chat.component.builder.LocalizedComponentBuilder;
+import ee.ellytr.chat.component.formattable.UnlocalizedComponent;
+import in.twizmwaz.cardinal.util.ChatUtil;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares localizing a broadcast for every recipient with localizing it once per locale in a channel. Recipients are
+ * stub players spread over a few locales, whose sendMessage only consumes the components.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChannelBroadcastBenchmark {
+
+  private static final String[] LOCALES = {"en_US", "en_US", "en_GB", "es_ES", "de_DE"};
+
+  @Param({"1", "10", "300"})
+  public int recipients;
+
+  private List<Player> players;
+  private AbstractChannel channel;
+  private BaseComponent message;
+
+  /**
+   * Registers the plugin's locales and creates the recipients.
+   */
+  @Setup
+  public void setup(Blackhole blackhole) {
+    LocaleRegistry registry = new LocaleRegistry();
+    registry.addLocaleFile(new Locale("en", "US"),
+        getClass().getClassLoader().getResourceAsStream("lang/cardinal/en_US.properties"));
+    registry.register();
+
+    players = Lists.newArrayList();
+    channel = new AbstractChannel();
+    for (int i = 0; i < recipients; i++) {
+      Player player = createPlayer(LOCALES[i % LOCALES.length], blackhole);
+      players.add(player);
+      channel.addPlayer(player);
+    }
+    message = new LocalizedComponentBuilder(
+        ChatConstant.getConstant("objective.wool.touched"),
+        new UnlocalizedComponent("Steve"),
+        new UnlocalizedComponent("Red Wool"),
+        new UnlocalizedComponent("Blue")
+    ).build();
+  }
+
+  /**
+   * Localizes the message separately for each recipient.
+   */
+  @Benchmark
+  public void perRecipient() {
+    for (Player player : players) {
+      ChatUtil.sendMessage(player, message);
+    }
+  }
+
+  /**
+   * Localizes the message once for each locale in the channel.
+   */
+  @Benchmark
+  public void perLocale() {
+    channel.sendMessage(message);
+  }
+
+  private static Player createPlayer(String locale, Blackhole blackhole) {
+    return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[]{Player.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getLocale":
+              return locale;
+            case "sendMessage":
+              blackhole.consume(args);
+              return null;
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+}
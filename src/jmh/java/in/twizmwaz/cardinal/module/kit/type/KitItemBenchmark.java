@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.kit.type;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Applies a kit filling all 36 slots to an empty inventory, and to a full one that holds the kit with damaged tools
+ * and half stacks, so repairing and stacking are measured too. The player is a stub whose inventory is a plain array,
+ * and a stub server provides the item factory that comparing stacks needs. The stacks have no item meta, so the
+ * factory only has to compare nulls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KitItemBenchmark {
+
+  private static final Material[] MATERIALS = {Material.IRON_SWORD, Material.BOW, Material.ARROW, Material.WOOD,
+      Material.GLASS, Material.COOKED_BEEF, Material.GOLDEN_APPLE, Material.IRON_PICKAXE, Material.LOG};
+
+  @Param({"empty", "full"})
+  public String inventory;
+
+  private KitItem kit;
+  private ItemStack[] contents;
+  private Player player;
+
+  /**
+   * Creates the kit and the player.
+   */
+  @Setup
+  public void setup() {
+    if (Bukkit.getServer() == null) {
+      Bukkit.setServer(createServer());
+    }
+    Set<KitItem.Item> items = Sets.newHashSet();
+    for (int slot = 0; slot < 36; slot++) {
+      Material material = MATERIALS[slot % MATERIALS.length];
+      items.add(new KitItem.Item(new ItemStack(material, material.getMaxStackSize()), slot));
+    }
+    kit = new KitItem(items);
+    contents = new ItemStack[36];
+    player = createPlayer(contents);
+  }
+
+  /**
+   * Resets the inventory before every apply.
+   */
+  @Setup(Level.Invocation)
+  public void reset() {
+    for (int slot = 0; slot < contents.length; slot++) {
+      if (inventory.equals("empty")) {
+        contents[slot] = null;
+      } else {
+        Material material = MATERIALS[slot % MATERIALS.length];
+        ItemStack stack = new ItemStack(material, Math.max(material.getMaxStackSize() / 2, 1));
+        if (material.getMaxDurability() > 0) {
+          stack.setDurability((short) 10);
+        }
+        contents[slot] = stack;
+      }
+    }
+  }
+
+  /**
+   * Applies the kit.
+   */
+  @Benchmark
+  public ItemStack[] apply() {
+    kit.apply(player, false);
+    return contents;
+  }
+
+  private static Server createServer() {
+    ItemFactory itemFactory = (ItemFactory) Proxy.newProxyInstance(ItemFactory.class.getClassLoader(),
+        new Class[]{ItemFactory.class}, (proxy, method, args) -> {
+          if (method.getName().equals("equals") && args.length == 2) {
+            return Objects.equals(args[0], args[1]);
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+    Logger logger = Logger.getLogger(KitItemBenchmark.class.getName());
+    return (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class[]{Server.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getItemFactory":
+              return itemFactory;
+            case "getLogger":
+              return logger;
+            case "getName":
+            case "getVersion":
+            case "getBukkitVersion":
+              return "benchmark";
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private static Player createPlayer(ItemStack[] contents) {
+    PlayerInventory inventory = (PlayerInventory) Proxy.newProxyInstance(PlayerInventory.class.getClassLoader(),
+        new Class[]{PlayerInventory.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getContents":
+              return contents;
+            case "getItem":
+              return contents[(int) args[0]];
+            case "setItem":
+              contents[(int) args[0]] = (ItemStack) args[1];
+              return null;
+            case "addItem":
+              return addItem(contents, (ItemStack[]) args[0]);
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+    return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class[]{Player.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("getInventory")) {
+            return inventory;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private static Map<Integer, ItemStack> addItem(ItemStack[] contents, ItemStack[] items) {
+    Map<Integer, ItemStack> leftover = Maps.newHashMap();
+    for (int i = 0; i < items.length; i++) {
+      ItemStack item = items[i].clone();
+      for (int slot = 0; slot < contents.length && item.getAmount() > 0; slot++) {
+        ItemStack stack = contents[slot];
+        if (stack == null) {
+          contents[slot] = item.clone();
+          item.setAmount(0);
+        } else if (stack.isSimilar(item) && stack.getAmount() < stack.getMaxStackSize()) {
+          int add = Math.min(stack.getMaxStackSize() - stack.getAmount(), item.getAmount());
+          stack.setAmount(stack.getAmount() + add);
+          item.setAmount(item.getAmount() - add);
+        }
+      }
+      if (item.getAmount() > 0) {
+        leftover.put(i, item);
+      }
+    }
+    return leftover;
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util.document;
+
+import com.google.common.collect.Lists;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.located.LocatedJDOMFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares parsing every map.xml in a repository with the located JDOM {@link SAXBuilder} and with
+ * {@link MapElementParser}. Includes are not resolved by either.
+ *
+ * <p>Running the class directly with a repository directory as its argument prints the heap retained by the parsed
+ * repository for each parser instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapParseBenchmark {
+
+  @Param("repo")
+  public String repository;
+
+  private List<File> files;
+
+  /**
+   * Finds the map files to parse.
+   */
+  @Setup
+  public void setup() throws IOException {
+    files = findMaps(repository);
+    if (files.isEmpty()) {
+      throw new IllegalStateException("No map.xml files found in " + repository);
+    }
+  }
+
+  /**
+   * Parses every map with the located JDOM builder.
+   */
+  @Benchmark
+  public void saxBuilder(Blackhole blackhole) throws Exception {
+    SAXBuilder builder = new SAXBuilder();
+    builder.setJDOMFactory(new LocatedJDOMFactory());
+    for (File file : files) {
+      blackhole.consume(builder.build(file));
+    }
+  }
+
+  /**
+   * Parses every map with the StAX parser.
+   */
+  @Benchmark
+  public void stax(Blackhole blackhole) throws Exception {
+    MapElementParser parser = new MapElementParser();
+    for (File file : files) {
+      blackhole.consume(parser.parse(file));
+    }
+  }
+
+  /**
+   * Prints the heap retained by every map in a repository for each parser.
+   *
+   * @param args The repository directory.
+   */
+  public static void main(String[] args) throws Exception {
+    List<File> files = findMaps(args.length > 0 ? args[0] : "repo");
+    System.out.println("Parsing " + files.size() + " maps");
+    System.out.println("SAXBuilder: " + retained(() -> {
+      SAXBuilder builder = new SAXBuilder();
+      builder.setJDOMFactory(new LocatedJDOMFactory());
+      List<Object> results = Lists.newArrayList();
+      for (File file : files) {
+        results.add(builder.build(file));
+      }
+      return results;
+    }) / 1024 + " KiB retained");
+    System.out.println("StAX: " + retained(() -> {
+      MapElementParser parser = new MapElementParser();
+      List<Object> results = Lists.newArrayList();
+      for (File file : files) {
+        results.add(parser.parse(file));
+      }
+      return results;
+    }) / 1024 + " KiB retained");
+  }
+
+  private static List<File> findMaps(String repository) throws IOException {
+    return Files.walk(Paths.get(repository))
+        .filter(path -> path.getFileName().toString().equals("map.xml"))
+        .map(Path::toFile)
+        .collect(Collectors.toList());
+  }
+
+  private static long retained(Callable<List<Object>> parse) throws Exception {
+    long before = usedHeap();
+    List<Object> results = parse.call();
+    long after = usedHeap();
+    if (results.size() != results.stream().filter(result -> result != null).count()) {
+      throw new IllegalStateException("A map failed to parse");
+    }
+    return after - before;
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
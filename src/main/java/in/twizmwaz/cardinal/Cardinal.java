@@ -62,6 +62,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Locale;
 import java.util.logging.Logger;
@@ -104,8 +105,12 @@ public final class Cardinal extends JavaPlugin {
       getDataFolder().mkdir();
     }
     moduleLoader = new ModuleLoader();
-    try {
-      moduleLoader.findEntries(getFile());
+    try (InputStream index = getResource(ModuleLoader.MODULE_INDEX)) {
+      if (index != null) {
+        moduleLoader.loadIndex(index);
+      } else {
+        moduleLoader.findEntries(getFile());
+      }
     } catch (IOException ex) {
       getLogger().severe("A fatal exception occurred while trying to load internal modules.");
       ex.printStackTrace();
@@ -113,8 +118,8 @@ public final class Cardinal extends JavaPlugin {
       return;
     }
     Bukkit.getScheduler().scheduleSyncDelayedTask(this, () -> {
-          ModuleRegistry registry =
-              new ModuleRegistry(moduleLoader.makeModules(moduleLoader.getModuleEntries()));
+          ModuleRegistry registry = new ModuleRegistry(moduleLoader.makeModules(moduleLoader.getModuleEntries()),
+              moduleLoader.getDependencies(), moduleLoader.getLoadBefore());
           setModuleHandler(new ModuleHandler(registry));
           Bukkit.getPluginManager().callEvent(new ModuleLoadCompleteEvent(moduleHandler));
         }
@@ -25,7 +25,6 @@
 
 package in.twizmwaz.cardinal.component;
 
-import com.google.common.collect.Lists;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.ClickEvent;
@@ -42,11 +41,11 @@ import java.util.List;
 public abstract class BaseComponentBuilder<B extends BaseComponentBuilder, C extends BaseComponent> {
 
   private ChatColor color;
-  private boolean bold;
-  private boolean italic;
-  private boolean underlined;
-  private boolean strikethrough;
-  private boolean obfuscated;
+  private Boolean bold;
+  private Boolean italic;
+  private Boolean underlined;
+  private Boolean strikethrough;
+  private Boolean obfuscated;
   private ClickEvent clickEvent;
   private HoverEvent hoverEvent;
   private List<BaseComponent> extra;
@@ -54,18 +53,10 @@ public abstract class BaseComponentBuilder<B extends BaseComponentBuilder, C ext
   private B thisObject;
 
   /**
-   * This is a base for other component builders to use, it has all the {@link BaseComponent} fields.
+   * This is a base for other component builders to use, it has all the {@link BaseComponent} fields. Fields that are
+   * not specified are left unset on the built component, so it inherits them from its parent.
    */
   public BaseComponentBuilder() {
-    color = null;
-    bold = false;
-    italic = false;
-    underlined = false;
-    strikethrough = false;
-    obfuscated = false;
-    clickEvent = null;
-    hoverEvent = null;
-    extra = Lists.newArrayList();
     thisObject = getThis();
   }
 
@@ -127,15 +118,33 @@ public abstract class BaseComponentBuilder<B extends BaseComponentBuilder, C ext
    * @return The built component.
    */
   public C build(C component) {
-    component.setColor(color);
-    component.setBold(bold);
-    component.setItalic(italic);
-    component.setUnderlined(underlined);
-    component.setStrikethrough(strikethrough);
-    component.setObfuscated(obfuscated);
-    component.setClickEvent(clickEvent);
-    component.setHoverEvent(hoverEvent);
-    component.setExtra(extra);
+    if (color != null) {
+      component.setColor(color);
+    }
+    if (bold != null) {
+      component.setBold(bold);
+    }
+    if (italic != null) {
+      component.setItalic(italic);
+    }
+    if (underlined != null) {
+      component.setUnderlined(underlined);
+    }
+    if (strikethrough != null) {
+      component.setStrikethrough(strikethrough);
+    }
+    if (obfuscated != null) {
+      component.setObfuscated(obfuscated);
+    }
+    if (clickEvent != null) {
+      component.setClickEvent(clickEvent);
+    }
+    if (hoverEvent != null) {
+      component.setHoverEvent(hoverEvent);
+    }
+    if (extra != null && !extra.isEmpty()) {
+      component.setExtra(extra);
+    }
     return component;
   }
 
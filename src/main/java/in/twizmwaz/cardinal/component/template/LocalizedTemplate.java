@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.component.template;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import ee.ellytr.chat.ChatConstant;
+import ee.ellytr.chat.component.LanguageComponent;
+import ee.ellytr.chat.component.formattable.LocalizedComponent;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A chat constant compiled for one locale. The constant is rendered once with marker arguments, and the result is
+ * kept as a tree of literal components and argument slots. Filling the template reuses the cached literal components
+ * instead of rendering the constant again, and only copies the components that hold arguments and the top-level
+ * components, so callers are free to style or re-parent what they get back. Cached literals below those copies are
+ * shared between messages and must not be changed.
+ *
+ * <p>If the markers do not come out of the rendering as separate components, the template renders the constant
+ * normally on every fill.
+ */
+final class LocalizedTemplate {
+
+  private static final char MARKER = '\uE000';
+  private static final int MAX_ARGUMENTS = 10;
+
+  private static final Map<String, Map<Locale, LocalizedTemplate>> templates = Maps.newConcurrentMap();
+
+  private final String key;
+  private final List<Node> nodes;
+
+  private LocalizedTemplate(String key, List<Node> nodes) {
+    this.key = key;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Gets the template of a chat constant for a locale, compiling it the first time.
+   *
+   * @param key    The key of the chat constant.
+   * @param locale The locale.
+   * @return The template.
+   */
+  static LocalizedTemplate get(String key, Locale locale) {
+    return templates.computeIfAbsent(key, constant -> Maps.newConcurrentMap())
+        .computeIfAbsent(locale, missing -> compile(key, missing));
+  }
+
+  private static LocalizedTemplate compile(String key, Locale locale) {
+    BaseComponent[] markers = new BaseComponent[MAX_ARGUMENTS];
+    for (int i = 0; i < MAX_ARGUMENTS; i++) {
+      markers[i] = new TextComponent(MARKER + Integer.toString(i) + MARKER);
+    }
+    List<Node> nodes = Lists.newArrayList();
+    for (BaseComponent component : new LocalizedComponent(ChatConstant.getConstant(key), markers)
+        .getComponents(locale)) {
+      Node node = compile(component);
+      if (node == null) {
+        return new LocalizedTemplate(key, null);
+      }
+      nodes.add(node);
+    }
+    return new LocalizedTemplate(key, nodes);
+  }
+
+  private static Node compile(BaseComponent component) {
+    List<BaseComponent> extra = component.getExtra();
+    if (component instanceof TextComponent) {
+      String text = ((TextComponent) component).getText();
+      if (text.indexOf(MARKER) != -1) {
+        if ((extra == null || extra.isEmpty()) && text.length() > 2 && text.charAt(0) == MARKER
+            && text.indexOf(MARKER, 1) == text.length() - 1) {
+          return new ArgumentNode(Integer.parseInt(text.substring(1, text.length() - 1)));
+        }
+        return null;
+      }
+    }
+    if (extra == null || extra.isEmpty()) {
+      return new LiteralNode(component);
+    }
+    List<Node> children = Lists.newArrayList();
+    boolean literal = true;
+    for (BaseComponent child : extra) {
+      Node node = compile(child);
+      if (node == null) {
+        return null;
+      }
+      literal &= node instanceof LiteralNode;
+      children.add(node);
+    }
+    if (literal) {
+      return new LiteralNode(component);
+    }
+    BaseComponent shell = component.duplicate();
+    shell.setExtra(Lists.newArrayList());
+    return new ParentNode(shell, children);
+  }
+
+  /**
+   * @return If the constant was compiled, instead of being rendered normally on every fill.
+   */
+  boolean isCompiled() {
+    return nodes != null;
+  }
+
+  /**
+   * Fills the template with arguments.
+   *
+   * @param locale    The locale the arguments are localized to.
+   * @param arguments The arguments.
+   * @return The message.
+   */
+  BaseComponent[] fill(Locale locale, BaseComponent[] arguments) {
+    if (nodes == null) {
+      return new LocalizedComponent(ChatConstant.getConstant(key), arguments).getComponents(locale);
+    }
+    Fill fill = new Fill(locale, arguments);
+    List<BaseComponent> components = Lists.newArrayList();
+    for (Node node : nodes) {
+      if (node instanceof LiteralNode) {
+        // Callers style and re-parent the top-level components, which must not reach the cached ones
+        components.add(((LiteralNode) node).component.duplicate());
+      } else {
+        node.fill(fill, components);
+      }
+    }
+    return components.toArray(new BaseComponent[components.size()]);
+  }
+
+  private static class Fill {
+
+    private final Locale locale;
+    private final BaseComponent[] arguments;
+    private final BaseComponent[][] localized;
+
+    private Fill(Locale locale, BaseComponent[] arguments) {
+      this.locale = locale;
+      this.arguments = arguments;
+      localized = new BaseComponent[arguments.length][];
+    }
+
+    private BaseComponent[] getArgument(int index) {
+      if (index >= arguments.length) {
+        return new BaseComponent[0];
+      }
+      if (localized[index] == null) {
+        BaseComponent argument = arguments[index];
+        localized[index] = argument instanceof LanguageComponent
+            ? ((LanguageComponent) argument).getComponents(locale) : new BaseComponent[]{argument};
+      }
+      return localized[index];
+    }
+
+  }
+
+  private interface Node {
+
+    void fill(Fill fill, List<BaseComponent> components);
+
+  }
+
+  /**
+   * A component without arguments below it, shared by every message unless it is at the top level.
+   */
+  private static class LiteralNode implements Node {
+
+    private final BaseComponent component;
+
+    private LiteralNode(BaseComponent component) {
+      this.component = component;
+    }
+
+    @Override
+    public void fill(Fill fill, List<BaseComponent> components) {
+      components.add(component);
+    }
+
+  }
+
+  private static class ArgumentNode implements Node {
+
+    private final int index;
+
+    private ArgumentNode(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void fill(Fill fill, List<BaseComponent> components) {
+      for (BaseComponent component : fill.getArgument(index)) {
+        components.add(component);
+      }
+    }
+
+  }
+
+  /**
+   * A component with arguments below it, copied without its extra for every message.
+   */
+  private static class ParentNode implements Node {
+
+    private final BaseComponent shell;
+    private final List<Node> children;
+
+    private ParentNode(BaseComponent shell, List<Node> children) {
+      this.shell = shell;
+      this.children = children;
+    }
+
+    @Override
+    public void fill(Fill fill, List<BaseComponent> components) {
+      BaseComponent component = shell.duplicate();
+      List<BaseComponent> extra = Lists.newArrayList();
+      children.forEach(child -> child.fill(fill, extra));
+      component.setExtra(extra);
+      components.add(component);
+    }
+
+  }
+
+}
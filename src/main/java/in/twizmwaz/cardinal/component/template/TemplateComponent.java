@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.component.template;
+
+import com.google.common.collect.Lists;
+import in.twizmwaz.cardinal.component.BaseLanguageComponent;
+import lombok.Getter;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.Locale;
+
+/**
+ * A localized message filled from a compiled template of its chat constant, for messages that are sent often.
+ */
+@Getter
+public class TemplateComponent extends BaseLanguageComponent<TemplateComponent> {
+
+  private final String key;
+  private final BaseComponent[] arguments;
+
+  /**
+   * @param key       The key of the chat constant.
+   * @param arguments The arguments of the message.
+   */
+  public TemplateComponent(String key, BaseComponent... arguments) {
+    this.key = key;
+    this.arguments = arguments;
+  }
+
+  @Override
+  public TemplateComponent duplicate() {
+    return super.duplicate(new TemplateComponent(key, arguments));
+  }
+
+  @Override
+  public BaseComponent[] getComponents(Locale locale) {
+    BaseComponent[] components = LocalizedTemplate.get(key, locale).fill(locale, arguments);
+    if (getColorRaw() == null && isBoldRaw() == null && isItalicRaw() == null && isUnderlinedRaw() == null
+        && isStrikethroughRaw() == null && isObfuscatedRaw() == null && getClickEvent() == null
+        && getHoverEvent() == null) {
+      return components;
+    }
+    TextComponent component = new TextComponent("");
+    component.setColor(getColorRaw());
+    component.setBold(isBoldRaw());
+    component.setItalic(isItalicRaw());
+    component.setUnderlined(isUnderlinedRaw());
+    component.setStrikethrough(isStrikethroughRaw());
+    component.setObfuscated(isObfuscatedRaw());
+    component.setClickEvent(getClickEvent());
+    component.setHoverEvent(getHoverEvent());
+    component.setExtra(Lists.newArrayList(components));
+    return new BaseComponent[]{component};
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.component.template;
+
+import in.twizmwaz.cardinal.component.BaseComponentBuilder;
+import net.md_5.bungee.api.chat.BaseComponent;
+
+public class TemplateComponentBuilder extends BaseComponentBuilder<TemplateComponentBuilder, TemplateComponent> {
+
+  private final String key;
+  private final BaseComponent[] arguments;
+
+  /**
+   * Creates a builder of {@link TemplateComponent} based on specified values.
+   *
+   * @param key       The key of the chat constant.
+   * @param arguments The arguments of the message.
+   */
+  public TemplateComponentBuilder(String key, BaseComponent... arguments) {
+    this.key = key;
+    this.arguments = arguments;
+  }
+
+  public TemplateComponentBuilder getThis() {
+    return this;
+  }
+
+  /**
+   * Builds a {@link TemplateComponent} from the specified values.
+   *
+   * @return The built component.
+   */
+  public TemplateComponent build() {
+    return super.build(new TemplateComponent(key, arguments));
+  }
+
+}
@@ -25,6 +25,8 @@
 
 package in.twizmwaz.cardinal.module;
 
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import in.twizmwaz.cardinal.Cardinal;
@@ -35,12 +37,16 @@ import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.AnnotationNode;
 import org.objectweb.asm.tree.ClassNode;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.zip.ZipEntry;
@@ -51,19 +57,87 @@ import java.util.zip.ZipFile;
  */
 public final class ModuleLoader {
 
+  /**
+   * The resource written by the build's annotation processor, listing every module in the plugin jar.
+   */
+  public static final String MODULE_INDEX = "META-INF/cardinal/modules.index";
+
   private static final String MODULE_DESCRIPTOR = Type.getDescriptor(ModuleEntry.class);
 
   @Getter
   private final Set<Class> moduleEntries = Sets.newLinkedHashSet();
+  @Getter
+  private final Map<Class, List<Class>> dependencies = Maps.newHashMap();
+  @Getter
+  private final Map<Class, List<Class>> loadBefore = Maps.newHashMap();
+
+  /**
+   * Loads entries from a module index generated at build time.
+   *
+   * @param in The index resource.
+   */
+  public void loadIndex(@NonNull InputStream in) throws IOException {
+    long start = System.nanoTime();
+    int identified = 0;
+    Set<Class> found = Sets.newLinkedHashSet();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, Charsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty()) {
+          continue;
+        }
+        identified++;
+        String[] parts = line.split("\t", -1);
+        Class clazz;
+        try {
+          clazz = Class.forName(parts[0]);
+        } catch (ClassNotFoundException ex) {
+          Cardinal.getPluginLogger().info("Module index lists '"
+              + parts[0] + "' but it could not be located, skipping.");
+          continue;
+        }
+        // Both edge lists are resolved before either is stored, so a skipped module leaves no partial entry
+        List<Class> depends;
+        List<Class> before;
+        try {
+          depends = getClasses(parts.length > 1 ? parts[1] : "");
+          before = getClasses(parts.length > 2 ? parts[2] : "");
+        } catch (ClassNotFoundException ex) {
+          Cardinal.getPluginLogger().info("Module '" + parts[0] + "' refers to '" + ex.getMessage()
+              + "' but it could not be located, skipping.");
+          continue;
+        }
+        dependencies.put(clazz, depends);
+        loadBefore.put(clazz, before);
+        found.add(clazz);
+      }
+    }
+    Cardinal.getPluginLogger().info("Identified " + identified + " modules from the module index");
+    Cardinal.getPluginLogger().info("Found " + found.size() + " modules in "
+        + (System.nanoTime() - start) / 1000000 + "ms");
+    moduleEntries.addAll(found);
+  }
+
+  private static List<Class> getClasses(String names) throws ClassNotFoundException {
+    List<Class> classes = Lists.newArrayList();
+    for (String name : names.split(",")) {
+      if (!name.isEmpty()) {
+        classes.add(Class.forName(name));
+      }
+    }
+    return classes;
+  }
 
   /**
-   * Loads entries from a specified package.
+   * Loads entries from a specified package by scanning every class in it. This is only needed for jars that were not
+   * built with a module index.
    *
    * @param file Jar to load modules from. The jar must already be available on the classpath.
    */
   @SuppressWarnings("unchecked")
   public void findEntries(@NonNull File file) throws IOException {
     Cardinal.getPluginLogger().info("Loading modules from " + file.getAbsolutePath());
+    long start = System.nanoTime();
     Set<String> classStrings = Sets.newLinkedHashSet();
     Set<Class> found = Sets.newLinkedHashSet();
     // The Jar to load modules from
@@ -101,6 +175,9 @@ public final class ModuleLoader {
         Class clazz = Class.forName(classString);
         // And save it for later
         found.add(clazz);
+        ModuleEntry moduleEntry = (ModuleEntry) clazz.getAnnotation(ModuleEntry.class);
+        dependencies.put(clazz, Arrays.asList(moduleEntry.depends()));
+        loadBefore.put(clazz, Arrays.asList(moduleEntry.loadBefore()));
       } catch (ClassNotFoundException ex) {
         Cardinal.getPluginLogger().info("ASM found module '"
             + classString + "' but it could not be located, skipping.");
@@ -108,7 +185,8 @@ public final class ModuleLoader {
     });
 
     Cardinal.getPluginLogger().info("Identified " + classStrings.size() + " modules");
-    Cardinal.getPluginLogger().info("Found " + found.size() + " modules");
+    Cardinal.getPluginLogger().info("Found " + found.size() + " modules in "
+        + (System.nanoTime() - start) / 1000000 + "ms");
     moduleEntries.addAll(found);
   }
 
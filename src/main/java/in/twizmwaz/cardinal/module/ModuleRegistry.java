@@ -33,6 +33,7 @@ import lombok.Getter;
 import lombok.NonNull;
 import org.apache.commons.lang.Validate;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -45,19 +46,21 @@ public final class ModuleRegistry {
   /**
    * Creates a new {@link ModuleRegistry}
    *
-   * @param modules The modules in the registry to be created.
+   * @param modules      The modules in the registry to be created.
+   * @param dependencies The modules each module depends on.
+   * @param loadBefore   The modules each module must load before.
    */
-  public ModuleRegistry(@NonNull Map<Class, Module> modules) {
+  public ModuleRegistry(@NonNull Map<Class, Module> modules, @NonNull Map<Class, List<Class>> dependencies,
+                        @NonNull Map<Class, List<Class>> loadBefore) {
     Validate.notNull(modules);
     this.modules = new ImmutableBiMap.Builder<Class, Module>().putAll(modules).build();
     DependencyGraph<Module> graph = new DependencyGraph<Module>();
-    this.modules.values().forEach(module -> {
+    this.modules.forEach((clazz, module) -> {
       graph.add(module);
-      ModuleEntry moduleEntry = module.getClass().getAnnotation(ModuleEntry.class);
-      for (Class dep : moduleEntry.depends()) {
+      for (Class dep : dependencies.getOrDefault(clazz, Collections.emptyList())) {
         graph.addDependency(module, modules.get(dep));
       }
-      for (Class before : moduleEntry.loadBefore()) {
+      for (Class before : loadBefore.getOrDefault(clazz, Collections.emptyList())) {
         graph.addDependency(modules.get(before), module);
       }
     });
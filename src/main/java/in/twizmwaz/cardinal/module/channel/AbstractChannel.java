@@ -25,21 +25,26 @@
 
 package in.twizmwaz.cardinal.module.channel;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import in.twizmwaz.cardinal.util.ChatUtil;
 import net.md_5.bungee.api.chat.BaseComponent;
 import org.bukkit.entity.Player;
 
-import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class AbstractChannel implements Channel {
 
-  private Collection<Player> players = Lists.newArrayList();
+  // Copied on write, so messages can be sent from any thread while players join, quit and change teams
+  private final CopyOnWriteArrayList<Player> players = new CopyOnWriteArrayList<>();
 
   @Override
   public void sendMessage(BaseComponent... components) {
+    // Localize once for every locale in the channel, instead of once per player
+    Map<String, BaseComponent[]> localized = Maps.newHashMap();
     for (Player player : players) {
-      ChatUtil.sendMessage(player, components);
+      player.sendMessage(localized.computeIfAbsent(player.getLocale(),
+          locale -> ChatUtil.getLocalizedComponents(ChatUtil.getLocale(player), components)));
     }
   }
 
@@ -50,7 +55,7 @@ public class AbstractChannel implements Channel {
 
   @Override
   public void addPlayer(Player player) {
-    players.add(player);
+    players.addIfAbsent(player);
   }
 
   @Override
@@ -53,7 +53,8 @@ import java.util.Map;
 @ModuleEntry(depends = {RotationModule.class, TeamModule.class})
 public class ChannelModule extends AbstractModule implements Listener {
 
-  private Map<MatchThread, GlobalChannel> globalChannels = Maps.newHashMap();
+  private Map<MatchThread, GlobalChannel> globalChannels = Maps.newConcurrentMap();
+  private Map<MatchThread, OutboundQueue> queues = Maps.newConcurrentMap();
   private Map<Match, List<TeamChannel>> teamChannels = Maps.newHashMap();
   private Map<Player, PlayerChannel> playerChannels = Maps.newHashMap();
 
@@ -65,7 +66,7 @@ public class ChannelModule extends AbstractModule implements Listener {
   }
 
   /**
-   * Registers a global channel whenever modules are loaded.
+   * Registers a global channel and a message queue whenever modules are loaded.
    *
    * @param event The event.
    */
@@ -75,6 +76,7 @@ public class ChannelModule extends AbstractModule implements Listener {
       GlobalChannel channel = new GlobalChannel();
       Cardinal.registerEvents(channel);
       globalChannels.put(matchThread, channel);
+      queues.put(matchThread, new OutboundQueue());
     });
   }
 
@@ -123,6 +125,16 @@ public class ChannelModule extends AbstractModule implements Listener {
     return globalChannels.get(matchThread);
   }
 
+  /**
+   * Gets the queue of messages to send on the main thread for a match thread.
+   *
+   * @param matchThread The match thread.
+   * @return The match thread's queue.
+   */
+  public OutboundQueue getQueue(@NonNull MatchThread matchThread) {
+    return queues.get(matchThread);
+  }
+
   public PlayerChannel getPlayerChannel(@NonNull Player player) {
     return playerChannels.get(player);
   }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.channel;
+
+import in.twizmwaz.cardinal.Cardinal;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.Bukkit;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Messages for the channels of a match thread, which any thread can post. They are sent on the main thread on the next
+ * tick, in the order they were posted. Nothing is scheduled while the queue is empty, so code that already runs on
+ * the main thread can keep sending to channels directly.
+ */
+public class OutboundQueue {
+
+  private final Queue<Message> messages = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  /**
+   * Posts a message to be sent to a channel on the next tick.
+   *
+   * @param channel    The channel.
+   * @param components The message.
+   */
+  public void post(Channel channel, BaseComponent... components) {
+    messages.add(new Message(channel, components));
+    if (scheduled.compareAndSet(false, true)) {
+      Bukkit.getScheduler().runTask(Cardinal.getInstance(), this::drain);
+    }
+  }
+
+  /**
+   * Sends every message posted so far. Must be called from the main thread.
+   */
+  private void drain() {
+    // Cleared first, so a message posted while draining is either sent now or schedules another drain
+    scheduled.set(false);
+    Message message;
+    while ((message = messages.poll()) != null) {
+      message.channel.sendMessage(message.components);
+    }
+  }
+
+  private static class Message {
+
+    private final Channel channel;
+    private final BaseComponent[] components;
+
+    private Message(Channel channel, BaseComponent[] components) {
+      this.channel = channel;
+      this.components = components;
+    }
+
+  }
+
+}
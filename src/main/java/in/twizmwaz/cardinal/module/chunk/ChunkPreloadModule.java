@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.chunk;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.event.match.MatchChangeStateEvent;
+import in.twizmwaz.cardinal.match.Match;
+import in.twizmwaz.cardinal.match.MatchState;
+import in.twizmwaz.cardinal.module.AbstractListenerModule;
+import in.twizmwaz.cardinal.module.ModuleEntry;
+import in.twizmwaz.cardinal.module.id.IdModule;
+import in.twizmwaz.cardinal.module.objective.Objective;
+import in.twizmwaz.cardinal.module.objective.core.Core;
+import in.twizmwaz.cardinal.module.objective.core.CoreModule;
+import in.twizmwaz.cardinal.module.objective.destroyable.Destroyable;
+import in.twizmwaz.cardinal.module.objective.destroyable.DestroyableModule;
+import in.twizmwaz.cardinal.module.objective.wool.Wool;
+import in.twizmwaz.cardinal.module.objective.wool.WoolModule;
+import in.twizmwaz.cardinal.module.region.Region;
+import in.twizmwaz.cardinal.module.region.RegionModule;
+import in.twizmwaz.cardinal.module.spawn.Spawn;
+import in.twizmwaz.cardinal.module.spawn.SpawnModule;
+import in.twizmwaz.cardinal.module.timer.MatchTimer;
+import in.twizmwaz.cardinal.module.timer.TimerModule;
+import lombok.NonNull;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.util.Cuboid;
+import org.bukkit.util.Vector;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the chunks a match is going to need before players are sent into it, and keeps them loaded until the match
+ * ends. Chunks are planned in order of importance (default spawns, team spawns, objectives, then the remaining
+ * bounded regions), and the configured limit applies to the whole plan. The plan is loaded a few chunks per tick on
+ * the match thread's timer, and the cycle waits for it with {@link #whenLoaded(Match, Runnable)} before it sends
+ * players in.
+ */
+@ModuleEntry(depends = {IdModule.class, RegionModule.class, SpawnModule.class, WoolModule.class, CoreModule.class,
+    DestroyableModule.class, TimerModule.class})
+public class ChunkPreloadModule extends AbstractListenerModule {
+
+  private final int budget = Math.max(1, Cardinal.getInstance().getConfig().getInt("chunkPreloadPerTick", 16));
+  private final int limit = Cardinal.getInstance().getConfig().getInt("chunkPreloadLimit", 4096);
+
+  private final Map<Match, Preload> preloads = Maps.newHashMap();
+  private final Map<Match, Set<Long>> pinned = Maps.newHashMap();
+
+  @Override
+  public boolean loadMatch(@NonNull Match match) {
+    Set<Long> chunks = Sets.newLinkedHashSet();
+    getRegions(match).forEach(region -> addRegion(chunks, region));
+    pinned.put(match, chunks);
+    Preload preload = new Preload(match, chunks.iterator());
+    preload.task = Cardinal.getModule(TimerModule.class).getTimer(match.getMatchThread()).schedule(preload, 1, 1);
+    preloads.put(match, preload);
+    return true;
+  }
+
+  /**
+   * Collects the regions a match is played in, in order of importance: default spawns, team spawns, objectives, then
+   * every other region parsed for the match, named or not.
+   *
+   * @param match The match.
+   * @return The regions, possibly containing duplicates.
+   */
+  public List<Region> getRegions(@NonNull Match match) {
+    List<Region> regions = Lists.newArrayList();
+    List<Spawn> spawns = IdModule.get().getList(match, Spawn.class);
+    spawns.stream().filter(Spawn::isDefaultSpawn).forEach(spawn -> regions.addAll(spawn.getRegions()));
+    spawns.stream().filter(spawn -> !spawn.isDefaultSpawn()).forEach(spawn -> regions.addAll(spawn.getRegions()));
+    for (Objective objective : Objective.getObjectives(match)) {
+      if (objective instanceof Wool) {
+        regions.add(((Wool) objective).getMonument());
+      } else if (objective instanceof Core) {
+        regions.add(((Core) objective).getRegion());
+      } else if (objective instanceof Destroyable) {
+        regions.add(((Destroyable) objective).getRegion());
+      }
+    }
+    regions.addAll(IdModule.get().getList(match, Region.class));
+    regions.addAll(Cardinal.getModule(RegionModule.class).getRegions(match));
+    return regions;
+  }
+
+  /**
+   * Runs a callback once every planned chunk of a match is loaded.
+   *
+   * @param match    The match.
+   * @param callback The callback, run right away if the chunks are already loaded.
+   */
+  public void whenLoaded(@NonNull Match match, @NonNull Runnable callback) {
+    Preload preload = preloads.get(match);
+    if (preload != null) {
+      preload.callbacks.add(callback);
+    } else {
+      callback.run();
+    }
+  }
+
+  @Override
+  public void clearMatch(@NonNull Match match) {
+    release(match);
+  }
+
+  /**
+   * Releases the pinned chunks once the match is over, letting the server unload them normally.
+   *
+   * @param event The event.
+   */
+  @EventHandler
+  public void onMatchEnd(MatchChangeStateEvent event) {
+    if (event.getState() == MatchState.ENDED) {
+      release(event.getMatch());
+    }
+  }
+
+  /**
+   * Keeps pinned chunks loaded.
+   *
+   * @param event The event.
+   */
+  @EventHandler(ignoreCancelled = true)
+  public void onChunkUnload(ChunkUnloadEvent event) {
+    long key = getKey(event.getChunk().getX(), event.getChunk().getZ());
+    for (Map.Entry<Match, Set<Long>> entry : pinned.entrySet()) {
+      if (entry.getKey().getWorld().equals(event.getWorld()) && entry.getValue().contains(key)) {
+        event.setCancelled(true);
+        return;
+      }
+    }
+  }
+
+  private void release(Match match) {
+    Preload preload = preloads.remove(match);
+    if (preload != null) {
+      preload.task.cancel();
+    }
+    pinned.remove(match);
+  }
+
+  private void addRegion(Set<Long> chunks, Region region) {
+    if (region == null || !region.isBounded()) {
+      return;
+    }
+    Cuboid cuboid = region.getBounds().getCuboid();
+    if (!cuboid.isFinite()) {
+      return;
+    }
+    Vector min = cuboid.minimum();
+    Vector max = cuboid.maximum();
+    for (int x = min.getBlockX() >> 4; x <= max.getBlockX() >> 4; x++) {
+      for (int z = min.getBlockZ() >> 4; z <= max.getBlockZ() >> 4; z++) {
+        if (chunks.size() >= limit) {
+          return;
+        }
+        chunks.add(getKey(x, z));
+      }
+    }
+  }
+
+  private static long getKey(int x, int z) {
+    return ((long) x << 32) | (z & 0xFFFFFFFFL);
+  }
+
+  private static int getX(long key) {
+    return (int) (key >> 32);
+  }
+
+  private static int getZ(long key) {
+    return (int) key;
+  }
+
+  private class Preload implements Runnable {
+
+    private final Match match;
+    private final Iterator<Long> queue;
+    private final List<Runnable> callbacks = Lists.newArrayList();
+    private MatchTimer.Task task;
+
+    private Preload(Match match, Iterator<Long> queue) {
+      this.match = match;
+      this.queue = queue;
+    }
+
+    @Override
+    public void run() {
+      World world = match.getWorld();
+      // Only chunks that were not loaded yet count against the budget
+      for (int loaded = 0; loaded < budget && queue.hasNext(); ) {
+        long chunk = queue.next();
+        if (!world.isChunkLoaded(getX(chunk), getZ(chunk))) {
+          world.loadChunk(getX(chunk), getZ(chunk));
+          loaded++;
+        }
+      }
+      if (!queue.hasNext()) {
+        task.cancel();
+        preloads.remove(match);
+        callbacks.forEach(Runnable::run);
+      }
+    }
+
+  }
+
+}
@@ -29,12 +29,14 @@ import com.google.common.collect.Maps;
 import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.match.MatchState;
+import in.twizmwaz.cardinal.match.MatchThread;
+import in.twizmwaz.cardinal.module.timer.MatchTimer;
+import in.twizmwaz.cardinal.module.timer.TimerModule;
 import in.twizmwaz.cardinal.util.Taskable;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
-import org.bukkit.Bukkit;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
 
@@ -54,13 +56,27 @@ public abstract class AbstractCountdown implements Taskable {
   @Setter
   protected int time;
 
+  private MatchTimer.Task task;
+
+  /**
+   * @return The match thread whose timer runs this countdown.
+   */
+  public abstract MatchThread getMatchThread();
+
+  /**
+   * Starts or stops the countdown. While it runs, it is called every tick by the match thread's timer.
+   *
+   * @param cancelled If the countdown should be stopped.
+   */
   @Override
   public void setCancelled(boolean cancelled) {
     if (this.cancelled && !cancelled) {
-      Bukkit.getScheduler().runTaskAsynchronously(Cardinal.getInstance(), this);
+      task = Cardinal.getModule(TimerModule.class).getTimer(getMatchThread()).schedule(this, 1, 1);
+    } else if (!this.cancelled && cancelled && task != null) {
+      task.cancel();
+      task = null;
     }
     this.cancelled = cancelled;
   }
 
-
 }
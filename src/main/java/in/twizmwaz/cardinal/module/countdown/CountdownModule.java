@@ -32,12 +32,13 @@ import in.twizmwaz.cardinal.match.MatchThread;
 import in.twizmwaz.cardinal.module.AbstractListenerModule;
 import in.twizmwaz.cardinal.module.ModuleEntry;
 import in.twizmwaz.cardinal.module.event.ModuleLoadCompleteEvent;
+import in.twizmwaz.cardinal.module.timer.TimerModule;
 import lombok.NonNull;
 import org.bukkit.event.EventHandler;
 
 import java.util.Map;
 
-@ModuleEntry
+@ModuleEntry(depends = {TimerModule.class})
 public class CountdownModule extends AbstractListenerModule {
 
   private Map<MatchThread, CycleCountdown> cycleCountdowns = Maps.newHashMap();
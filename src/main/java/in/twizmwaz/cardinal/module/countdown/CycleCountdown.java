@@ -25,11 +25,10 @@
 
 package in.twizmwaz.cardinal.module.countdown;
 
-import ee.ellytr.chat.ChatConstant;
-import ee.ellytr.chat.component.builder.LocalizedComponentBuilder;
 import ee.ellytr.chat.component.builder.TimeComponentBuilder;
 import ee.ellytr.chat.component.builder.UnlocalizedComponentBuilder;
 import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.component.template.TemplateComponentBuilder;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.match.MatchThread;
 import in.twizmwaz.cardinal.module.cycle.CycleModule;
@@ -39,7 +38,6 @@ import lombok.Getter;
 import lombok.NonNull;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.chat.BaseComponent;
-import org.bukkit.Bukkit;
 
 @Getter
 public class CycleCountdown extends AbstractCountdown {
@@ -55,7 +53,7 @@ public class CycleCountdown extends AbstractCountdown {
   @Override
   public void run() {
     if (time == 0) {
-      cancelled = true;
+      setCancelled(true);
 
       CycleModule cycleModule = Cardinal.getModule(CycleModule.class);
       LoadedMap map = cycleModule.getNextMap(matchThread);
@@ -63,8 +61,7 @@ public class CycleCountdown extends AbstractCountdown {
       cycleModule.cycle(matchThread);
 
       BaseComponent mapName = new UnlocalizedComponentBuilder(map.getName()).color(ChatColor.AQUA).build();
-      ChatConstant cycled = ChatConstant.getConstant("cycle.cycled");
-      BaseComponent message = new LocalizedComponentBuilder(cycled, mapName).color(ChatColor.DARK_AQUA).build();
+      BaseComponent message = new TemplateComponentBuilder("cycle.cycled", mapName).color(ChatColor.DARK_AQUA).build();
       Channels.getGlobalChannel(matchThread).sendMessage(message);
 
     } else if (!cancelled) {
@@ -72,15 +69,13 @@ public class CycleCountdown extends AbstractCountdown {
       if (time % 20 == 0) {
         BaseComponent mapName = new UnlocalizedComponentBuilder(Cardinal.getModule(CycleModule.class)
             .getNextMap(matchThread).getName()).color(ChatColor.AQUA).build();
-        ChatConstant cycling = ChatConstant.getConstant("cycle.countdown");
         BaseComponent timeComponent = new TimeComponentBuilder(time / 20).color(ChatColor.DARK_RED).build();
-        BaseComponent message = new LocalizedComponentBuilder(cycling, mapName, timeComponent)
+        BaseComponent message = new TemplateComponentBuilder("cycle.countdown", mapName, timeComponent)
             .color(ChatColor.DARK_AQUA).build();
         Channels.getGlobalChannel(matchThread).sendMessage(message);
       }
 
       time--;
-      Bukkit.getScheduler().runTaskLaterAsynchronously(Cardinal.getInstance(), this, 1);
     }
   }
 
@@ -25,16 +25,14 @@
 
 package in.twizmwaz.cardinal.module.countdown;
 
-import ee.ellytr.chat.ChatConstant;
-import ee.ellytr.chat.component.builder.LocalizedComponentBuilder;
 import ee.ellytr.chat.component.builder.TimeComponentBuilder;
-import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.component.template.TemplateComponentBuilder;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.match.MatchState;
+import in.twizmwaz.cardinal.match.MatchThread;
 import in.twizmwaz.cardinal.util.Channels;
 import lombok.Getter;
 import net.md_5.bungee.api.ChatColor;
-import org.bukkit.Bukkit;
 
 @Getter
 public class StartCountdown extends AbstractCountdown {
@@ -44,23 +42,27 @@ public class StartCountdown extends AbstractCountdown {
     super(match);
   }
 
+  @Override
+  public MatchThread getMatchThread() {
+    return match.getMatchThread();
+  }
+
   @Override
   public void run() {
     if (time == 0) {
-      cancelled = true;
+      setCancelled(true);
       match.setMatchState(MatchState.PLAYING);
 
-      Channels.getGlobalChannel(match.getMatchThread()).sendMessage(new LocalizedComponentBuilder(
-          ChatConstant.getConstant("match.start.started")).build());
+      Channels.getGlobalChannel(match.getMatchThread()).sendMessage(new TemplateComponentBuilder(
+          "match.start.started").build());
 
     } else if (!cancelled) {
       if (time % 20 == 0) {
-        Channels.getGlobalChannel(match.getMatchThread()).sendMessage(new LocalizedComponentBuilder(
-            ChatConstant.getConstant("match.start.countdown"), new TimeComponentBuilder(time / 20)
+        Channels.getGlobalChannel(match.getMatchThread()).sendMessage(new TemplateComponentBuilder(
+            "match.start.countdown", new TimeComponentBuilder(time / 20)
             .color(ChatColor.DARK_RED).build()).color(ChatColor.DARK_AQUA).build());
       }
       time--;
-      Bukkit.getScheduler().runTaskLaterAsynchronously(Cardinal.getInstance(), this, 1);
     }
   }
 
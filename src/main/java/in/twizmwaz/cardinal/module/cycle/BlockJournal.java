@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.cycle;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The original state of every block changed in a match world, kept as a stack of packed positions and type ids so it
+ * can be undone in reverse order, along with the entities spawned since. Only the first state of each position is
+ * kept, since that is the one a revert ends on, which also means changes can be undone in any order. A journal stops
+ * being usable once it overflows, or once something changed that it cannot restore, like the contents of a container
+ * or a tile entity.
+ */
+@SuppressWarnings("deprecation")
+class BlockJournal {
+
+  private static final Set<Material> TILE_ENTITIES = EnumSet.of(Material.CHEST, Material.TRAPPED_CHEST,
+      Material.FURNACE, Material.BURNING_FURNACE, Material.DISPENSER, Material.DROPPER, Material.HOPPER,
+      Material.BREWING_STAND, Material.BEACON, Material.SIGN_POST, Material.WALL_SIGN, Material.SKULL,
+      Material.MOB_SPAWNER, Material.JUKEBOX, Material.NOTE_BLOCK, Material.STANDING_BANNER, Material.WALL_BANNER,
+      Material.FLOWER_POT, Material.COMMAND, Material.COMMAND_CHAIN, Material.COMMAND_REPEATING);
+
+  @Getter
+  private final World world;
+  @Getter
+  private final long fullTime;
+  @Getter
+  private final Set<UUID> spawned = Sets.newHashSet();
+  private final int limit;
+  private final Set<Long> recorded = Sets.newHashSet();
+  private final Map<Long, Material> watched = Maps.newHashMap();
+  private long[] positions = new long[1024];
+  private int[] states = new int[1024];
+  private int size;
+  private int cursor;
+  @Getter
+  private boolean valid = true;
+
+  BlockJournal(@NonNull World world, int limit) {
+    this.world = world;
+    this.limit = limit;
+    fullTime = world.getFullTime();
+  }
+
+  /**
+   * Records a block's state before it changes.
+   *
+   * @param block The block.
+   */
+  void record(@NonNull Block block) {
+    if (valid) {
+      push(block.getType(), block.getX(), block.getY(), block.getZ(), block.getTypeId(), block.getData());
+    }
+  }
+
+  /**
+   * Records a block's state before it changes, along with its neighbours, which may change with it without an
+   * event of their own.
+   *
+   * @param block The block.
+   */
+  void recordWithNeighbours(@NonNull Block block) {
+    record(block);
+    touch(block.getRelative(1, 0, 0));
+    touch(block.getRelative(-1, 0, 0));
+    touch(block.getRelative(0, 1, 0));
+    touch(block.getRelative(0, -1, 0));
+    touch(block.getRelative(0, 0, 1));
+    touch(block.getRelative(0, 0, -1));
+  }
+
+  /**
+   * Records a block's state in case it is about to change. Unlike {@link #record(Block)}, tile entities do not
+   * invalidate the journal right away, since they most likely stay as they are. They are watched instead, and
+   * {@link #verify()} invalidates the journal if any of them changed.
+   *
+   * @param block The block.
+   */
+  void touch(@NonNull Block block) {
+    if (!valid) {
+      return;
+    }
+    Material type = block.getType();
+    if (!TILE_ENTITIES.contains(type)) {
+      record(block);
+      return;
+    }
+    long position = getPosition(block.getX(), block.getY(), block.getZ());
+    if (!recorded.contains(position)) {
+      watched.putIfAbsent(position, type);
+    }
+  }
+
+  /**
+   * @return If there are touched tile entities left to verify.
+   */
+  boolean isWatching() {
+    return !watched.isEmpty();
+  }
+
+  /**
+   * Invalidates the journal if a touched tile entity is no longer there, since its data can not be restored.
+   */
+  void verify() {
+    for (Map.Entry<Long, Material> entry : watched.entrySet()) {
+      if (getBlock(entry.getKey()).getType() != entry.getValue()) {
+        invalidate();
+        return;
+      }
+    }
+    watched.clear();
+  }
+
+  /**
+   * Records a captured block state.
+   *
+   * @param state The state before the change.
+   */
+  void record(@NonNull BlockState state) {
+    if (valid) {
+      push(state.getType(), state.getX(), state.getY(), state.getZ(), state.getTypeId(), state.getRawData());
+    }
+  }
+
+  /**
+   * Marks the journal as unusable, dropping what it recorded.
+   */
+  void invalidate() {
+    valid = false;
+    spawned.clear();
+    recorded.clear();
+    watched.clear();
+    positions = new long[0];
+    states = new int[0];
+    size = 0;
+  }
+
+  /**
+   * @return If every recorded change has been undone.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Undoes the most recent changes, without applying physics.
+   *
+   * @param count The most changes to undo.
+   */
+  void revert(int count) {
+    for (; count > 0 && size > 0; count--) {
+      size--;
+      long position = positions[size];
+      int state = states[size];
+      recorded.remove(position);
+      getBlock(position).setTypeIdAndData(state >>> 4, (byte) (state & 0xF), false);
+    }
+  }
+
+  /**
+   * Undoes changes outside of some chunks, without applying physics. The changes are scanned from where the last call
+   * stopped, looking at no more than four times as many changes as it may undo.
+   *
+   * @param count The most changes to undo.
+   * @param kept  The chunks to leave as they are, as made by {@link #getChunkKey(int, int)}.
+   * @return The number of changes undone.
+   */
+  int revert(int count, @NonNull Set<Long> kept) {
+    int reverted = 0;
+    for (long scan = 4L * count; reverted < count && size > 0 && scan > 0; scan--) {
+      if (cursor <= 0 || cursor > size) {
+        cursor = size;
+      }
+      cursor--;
+      long position = positions[cursor];
+      if (kept.contains(getChunkKey((int) (position >> 38) >> 4, (int) (position << 26 >> 38) >> 4))) {
+        continue;
+      }
+      int state = states[cursor];
+      size--;
+      positions[cursor] = positions[size];
+      states[cursor] = states[size];
+      recorded.remove(position);
+      getBlock(position).setTypeIdAndData(state >>> 4, (byte) (state & 0xF), false);
+      reverted++;
+    }
+    return reverted;
+  }
+
+  /**
+   * @param x The chunk's x coordinate.
+   * @param z The chunk's z coordinate.
+   * @return A key for the chunk.
+   */
+  static long getChunkKey(int x, int z) {
+    return ((long) x << 32) | (z & 0xFFFFFFFFL);
+  }
+
+  private Block getBlock(long position) {
+    return world.getBlockAt((int) (position >> 38), (int) (position & 0xFFF), (int) (position << 26 >> 38));
+  }
+
+  private static long getPosition(int x, int y, int z) {
+    return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | y & 0xFFF;
+  }
+
+  private void push(Material type, int x, int y, int z, int id, byte data) {
+    long position = getPosition(x, y, z);
+    if (recorded.contains(position)) {
+      return;
+    }
+    // A watched position was a tile entity, so changing it loses the tile data
+    if (TILE_ENTITIES.contains(type) || watched.containsKey(position) || size == limit) {
+      invalidate();
+      return;
+    }
+    if (size == positions.length) {
+      int length = Math.min(limit, size * 2);
+      positions = Arrays.copyOf(positions, length);
+      states = Arrays.copyOf(states, length);
+    }
+    positions[size] = position;
+    states[size] = id << 4 | data & 0xF;
+    recorded.add(position);
+    size++;
+  }
+
+}
@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.cycle;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.event.match.MatchChangeStateEvent;
+import in.twizmwaz.cardinal.match.Match;
+import in.twizmwaz.cardinal.match.MatchState;
+import in.twizmwaz.cardinal.module.AbstractListenerModule;
+import in.twizmwaz.cardinal.module.ModuleEntry;
+import in.twizmwaz.cardinal.module.repository.LoadedMap;
+import in.twizmwaz.cardinal.module.timer.MatchTimer;
+import in.twizmwaz.cardinal.module.timer.TimerModule;
+import lombok.NonNull;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.DoubleChest;
+import org.bukkit.entity.AreaEffectCloud;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.ExperienceOrb;
+import org.bukkit.entity.Explosive;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.entity.Firework;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockRedstoneEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.hanging.HangingBreakEvent;
+import org.bukkit.event.hanging.HangingPlaceEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.vehicle.VehicleCreateEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.material.Directional;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Journals block changes in match worlds, so a world can be reverted in place and used again when the next match is
+ * on the same map. Once the match has ended, reverting runs in the background a few thousand blocks per tick, leaving
+ * the chunks players are in for later. When the cycle happens, whatever is left is reverted over the next ticks, those
+ * chunks last, and the world is handed to the next match once it is done.
+ */
+@ModuleEntry(depends = TimerModule.class)
+public class BlockJournalModule extends AbstractListenerModule {
+
+  /**
+   * Solid blocks that can break or change when a neighbour does, without an event of their own.
+   */
+  private static final Set<Material> PHYSICS_SENSITIVE = EnumSet.of(Material.CACTUS, Material.SIGN_POST,
+      Material.WALL_SIGN, Material.WOODEN_DOOR, Material.IRON_DOOR_BLOCK, Material.SPRUCE_DOOR, Material.BIRCH_DOOR,
+      Material.JUNGLE_DOOR, Material.ACACIA_DOOR, Material.DARK_OAK_DOOR, Material.TRAP_DOOR, Material.IRON_TRAPDOOR,
+      Material.PISTON_BASE, Material.PISTON_STICKY_BASE, Material.PISTON_EXTENSION, Material.CHORUS_PLANT,
+      Material.CHORUS_FLOWER);
+
+  private final boolean enabled = Cardinal.getInstance().getConfig().getBoolean("resetRecycledWorlds", false);
+  private final int limit = Cardinal.getInstance().getConfig().getInt("journalLimit", 262144);
+  private final int budget = Math.max(1, Cardinal.getInstance().getConfig().getInt("journalResetPerTick", 4096));
+
+  private final Map<Match, BlockJournal> journals = Maps.newHashMap();
+  private final Map<Match, MatchTimer.Task> resets = Maps.newHashMap();
+  private final Set<BlockJournal> unverified = Sets.newHashSet();
+
+  @Override
+  public boolean loadMatch(@NonNull Match match) {
+    if (enabled) {
+      journals.put(match, new BlockJournal(match.getWorld(), limit));
+    }
+    return true;
+  }
+
+  @Override
+  public void clearMatch(@NonNull Match match) {
+    journals.remove(match);
+    stopReset(match);
+  }
+
+  /**
+   * @param match The match.
+   * @param map   The map of the next match.
+   * @return If the match's world can be reverted and used for the next match.
+   */
+  boolean canReuse(@NonNull Match match, LoadedMap map) {
+    BlockJournal journal = journals.get(match);
+    return journal != null && journal.isValid() && match.getMap() == map;
+  }
+
+  /**
+   * Reverts a match's world over the next ticks, so the next match can use it without copying and creating the world
+   * again. The chunks players are in are reverted last. The match no longer journals once the world is handed over.
+   *
+   * @param match    The match.
+   * @param map      The map of the next match.
+   * @param callback Receives the reverted world, or null if the journal became unusable before it was done.
+   * @return If the world is being reverted, otherwise the callback is never run.
+   */
+  boolean takeWorld(@NonNull Match match, LoadedMap map, @NonNull Consumer<World> callback) {
+    if (!canReuse(match, map)) {
+      return false;
+    }
+    stopReset(match);
+    Revert revert = new Revert(match, journals.get(match), callback);
+    revert.task = Cardinal.getModule(TimerModule.class).getTimer(match.getMatchThread()).schedule(revert, 1, 1);
+    resets.put(match, revert.task);
+    return true;
+  }
+
+  /**
+   * Starts reverting the world in the background once the match ends, as long as the next match is on the same map.
+   * The chunks around players are left alone, so blocks never change around them.
+   *
+   * @param event The event.
+   */
+  @EventHandler
+  public void onMatchEnd(MatchChangeStateEvent event) {
+    Match match = event.getMatch();
+    BlockJournal journal = journals.get(match);
+    if (event.getState() != MatchState.ENDED || journal == null || resets.containsKey(match)) {
+      return;
+    }
+    resets.put(match, Cardinal.getModule(TimerModule.class).getTimer(match.getMatchThread()).schedule(() -> {
+      if (canReuse(match, Cardinal.getModule(CycleModule.class).getNextMap(match.getMatchThread()))) {
+        journal.revert(budget, getOccupiedChunks(journal.getWorld()));
+      }
+    }, 1, 1));
+  }
+
+  private void stopReset(Match match) {
+    MatchTimer.Task task = resets.remove(match);
+    if (task != null) {
+      task.cancel();
+    }
+  }
+
+  /**
+   * @return The chunks players are in, and the chunks right around them.
+   */
+  private static Set<Long> getOccupiedChunks(World world) {
+    Set<Long> chunks = Sets.newHashSet();
+    for (Player player : world.getPlayers()) {
+      int chunkX = player.getLocation().getBlockX() >> 4;
+      int chunkZ = player.getLocation().getBlockZ() >> 4;
+      for (int x = chunkX - 1; x <= chunkX + 1; x++) {
+        for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
+          chunks.add(BlockJournal.getChunkKey(x, z));
+        }
+      }
+    }
+    return chunks;
+  }
+
+  /**
+   * Applies a change to the journal of a world. When that makes the journal unusable, the next match's world is
+   * copied after all. Tile entities the change touched are verified once the tick is over.
+   */
+  private void journal(World world, Consumer<BlockJournal> change) {
+    for (Map.Entry<Match, BlockJournal> entry : journals.entrySet()) {
+      BlockJournal journal = entry.getValue();
+      if (journal.getWorld().equals(world)) {
+        if (journal.isValid()) {
+          change.accept(journal);
+          if (!journal.isValid()) {
+            Cardinal.getModule(CycleModule.class).restage(entry.getKey().getMatchThread());
+          } else if (journal.isWatching() && unverified.add(journal)) {
+            Bukkit.getScheduler().runTask(Cardinal.getInstance(), () -> {
+              unverified.remove(journal);
+              journal(world, BlockJournal::verify);
+            });
+          }
+        }
+        return;
+      }
+    }
+  }
+
+  private void journal(Collection<Block> blocks) {
+    if (!blocks.isEmpty()) {
+      journal(blocks.iterator().next().getWorld(), journal -> blocks.forEach(journal::recordWithNeighbours));
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPlace(BlockPlaceEvent event) {
+    journal(event.getBlock().getWorld(), journal -> {
+      if (event instanceof BlockMultiPlaceEvent) {
+        ((BlockMultiPlaceEvent) event).getReplacedBlockStates().forEach(journal::record);
+      } else {
+        journal.record(event.getBlockReplacedState());
+      }
+    });
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBreak(BlockBreakEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.recordWithNeighbours(event.getBlock()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBurn(BlockBurnEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.recordWithNeighbours(event.getBlock()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFade(BlockFadeEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.record(event.getBlock()));
+  }
+
+  /**
+   * Journals blocks that form, spread or grow.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockGrow(BlockGrowEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.record(event.getBlock()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockIgnite(BlockIgniteEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.touch(event.getBlock()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFromTo(BlockFromToEvent event) {
+    journal(event.getToBlock().getWorld(), journal -> journal.record(event.getToBlock()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onLeavesDecay(LeavesDecayEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.record(event.getBlock()));
+  }
+
+  /**
+   * Journals blocks that receive a physics update and may change because of it, which covers changes that spread
+   * further than the neighbours of the block that changed first, like signs, torches and rails popping off. Most
+   * physics updates reach blocks that stay as they are, so those are not journaled.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPhysics(BlockPhysicsEvent event) {
+    Material type = event.getBlock().getType();
+    if (type != Material.AIR && (!type.isSolid() || PHYSICS_SENSITIVE.contains(type))) {
+      journal(event.getBlock().getWorld(), journal -> journal.touch(event.getBlock()));
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onBlockRedstone(BlockRedstoneEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.touch(event.getBlock()));
+  }
+
+  /**
+   * Journals the block a dispenser places liquid or fire into.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockDispense(BlockDispenseEvent event) {
+    BlockState state = event.getBlock().getState();
+    if (state.getData() instanceof Directional) {
+      BlockFace facing = ((Directional) state.getData()).getFacing();
+      journal(event.getBlock().getWorld(), journal -> journal.touch(event.getBlock().getRelative(facing)));
+    }
+  }
+
+  /**
+   * Journals the piston, the blocks it pushes and where they end up.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonExtend(BlockPistonExtendEvent event) {
+    journal(event.getBlock().getWorld(), journal -> {
+      journal.record(event.getBlock());
+      journal.touch(event.getBlock().getRelative(event.getDirection()));
+      event.getBlocks().forEach(block -> {
+        journal.record(block);
+        journal.touch(block.getRelative(event.getDirection()));
+      });
+    });
+  }
+
+  /**
+   * Journals the piston, its head, the blocks it pulls and where they end up.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonRetract(BlockPistonRetractEvent event) {
+    journal(event.getBlock().getWorld(), journal -> {
+      journal.record(event.getBlock());
+      journal.touch(event.getBlock().getRelative(event.getDirection()));
+      journal.touch(event.getBlock().getRelative(event.getDirection().getOppositeFace()));
+      event.getBlocks().forEach(block -> {
+        journal.record(block);
+        journal.touch(block.getRelative(event.getDirection()));
+        journal.touch(block.getRelative(event.getDirection().getOppositeFace()));
+      });
+    });
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event) {
+    journal(event.blockList());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockExplode(BlockExplodeEvent event) {
+    journal(event.blockList());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+    journal(event.getBlock().getWorld(), journal -> journal.record(event.getBlock()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+    Block block = event.getBlockClicked().getRelative(event.getBlockFace());
+    journal(block.getWorld(), journal -> journal.record(block));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBucketFill(PlayerBucketFillEvent event) {
+    Block block = event.getBlockClicked();
+    journal(block.getWorld(), journal -> {
+      journal.touch(block);
+      journal.touch(block.getRelative(event.getBlockFace()));
+    });
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onStructureGrow(StructureGrowEvent event) {
+    journal(event.getWorld(), journal -> event.getBlocks()
+        .forEach(state -> journal.touch(event.getWorld().getBlockAt(state.getLocation()))));
+  }
+
+  /**
+   * Journals blocks players toggle, like doors, levers and pressure plates, including the other half of doors.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerInteract(PlayerInteractEvent event) {
+    Block block = event.getClickedBlock();
+    if (block != null && (event.getAction() == Action.RIGHT_CLICK_BLOCK || event.getAction() == Action.PHYSICAL)) {
+      journal(block.getWorld(), journal -> {
+        journal.touch(block);
+        journal.touch(block.getRelative(BlockFace.UP));
+        journal.touch(block.getRelative(BlockFace.DOWN));
+      });
+    }
+  }
+
+  /**
+   * Container contents are not journaled, so opening one makes the world impossible to revert.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onInventoryOpen(InventoryOpenEvent event) {
+    InventoryHolder holder = event.getInventory().getHolder();
+    if (holder instanceof BlockState || holder instanceof DoubleChest) {
+      journal(event.getPlayer().getWorld(), BlockJournal::invalidate);
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onCreatureSpawn(CreatureSpawnEvent event) {
+    journal(event.getEntity().getWorld(), journal -> journal.getSpawned().add(event.getEntity().getUniqueId()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onVehicleCreate(VehicleCreateEvent event) {
+    journal(event.getVehicle().getWorld(), journal -> journal.getSpawned().add(event.getVehicle().getUniqueId()));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onHangingPlace(HangingPlaceEvent event) {
+    journal(event.getEntity().getWorld(), journal -> journal.getSpawned().add(event.getEntity().getUniqueId()));
+  }
+
+  /**
+   * Entities that were part of the map can not be brought back.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onHangingBreak(HangingBreakEvent event) {
+    journal(event.getEntity().getWorld(), journal -> {
+      if (!journal.getSpawned().contains(event.getEntity().getUniqueId())) {
+        journal.invalidate();
+      }
+    });
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onEntityDeath(EntityDeathEvent event) {
+    if (!(event.getEntity() instanceof Player)) {
+      journal(event.getEntity().getWorld(), journal -> {
+        if (!journal.getSpawned().contains(event.getEntity().getUniqueId())) {
+          journal.invalidate();
+        }
+      });
+    }
+  }
+
+  /**
+   * Reverts a world a few thousand blocks per tick, leaving the chunks around players until nothing else is left.
+   */
+  private class Revert implements Runnable {
+
+    private final Match match;
+    private final BlockJournal journal;
+    private final Consumer<World> callback;
+    private final long start = System.nanoTime();
+    private MatchTimer.Task task;
+
+    private Revert(Match match, BlockJournal journal, Consumer<World> callback) {
+      this.match = match;
+      this.journal = journal;
+      this.callback = callback;
+    }
+
+    @Override
+    public void run() {
+      if (!journal.isValid()) {
+        finish(null);
+        return;
+      }
+      World world = journal.getWorld();
+      if (journal.revert(budget, getOccupiedChunks(world)) == 0) {
+        journal.revert(budget);
+      }
+      if (!journal.isEmpty()) {
+        return;
+      }
+      for (Entity entity : world.getEntities()) {
+        if (!(entity instanceof Player) && (journal.getSpawned().contains(entity.getUniqueId())
+            || entity instanceof Item || entity instanceof Projectile || entity instanceof Explosive
+            || entity instanceof FallingBlock || entity instanceof ExperienceOrb || entity instanceof Firework
+            || entity instanceof AreaEffectCloud)) {
+          entity.remove();
+        }
+      }
+      world.setFullTime(journal.getFullTime());
+      Cardinal.getPluginLogger().info("Reverted " + world.getName() + " in " + (System.nanoTime() - start) / 1000000
+          + "ms");
+      finish(world);
+    }
+
+    private void finish(World world) {
+      task.cancel();
+      resets.remove(match);
+      journals.remove(match);
+      callback.accept(world);
+    }
+
+  }
+
+}
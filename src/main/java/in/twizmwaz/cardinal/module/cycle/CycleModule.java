@@ -26,13 +26,16 @@
 package in.twizmwaz.cardinal.module.cycle;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.event.match.MatchLoadCompleteEvent;
 import in.twizmwaz.cardinal.event.matchthread.MatchThreadMakeEvent;
+import in.twizmwaz.cardinal.event.repository.RepositoryReloadEvent;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.match.MatchThread;
 import in.twizmwaz.cardinal.module.AbstractListenerModule;
 import in.twizmwaz.cardinal.module.ModuleEntry;
+import in.twizmwaz.cardinal.module.chunk.ChunkPreloadModule;
 import in.twizmwaz.cardinal.module.event.ModuleLoadCompleteEvent;
 import in.twizmwaz.cardinal.module.repository.LoadedMap;
 import in.twizmwaz.cardinal.module.rotation.RotationModule;
@@ -41,18 +44,70 @@ import in.twizmwaz.cardinal.playercontainer.PlayerContainerData;
 import lombok.Getter;
 import lombok.NonNull;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Level;
 
-@ModuleEntry(depends = {RotationModule.class})
+@ModuleEntry(depends = {RotationModule.class, BlockJournalModule.class, ChunkPreloadModule.class})
 public final class CycleModule extends AbstractListenerModule {
 
   @Getter
   private final Map<MatchThread, CycleRunnable> nextCycle = Maps.newHashMap();
+  @Getter
+  private final File matchesDirectory;
+  private final MapFootprints footprints;
+  private final boolean trimWorlds;
+  private final Set<MatchThread> cycling = Sets.newHashSet();
+  private final Map<MatchThread, Match> loading = Maps.newHashMap();
+
+  /**
+   * Creates a new module instance, and deletes any match directories left from an earlier run. Only directories named
+   * after a match UUID are deleted, and nothing is deleted if the matches directory holds the server's worlds or the
+   * plugin's data.
+   */
+  public CycleModule() {
+    String path = Cardinal.getInstance().getConfig().getString("matchesDirectory", "matches");
+    matchesDirectory = Paths.get(path).isAbsolute()
+        ? new File(path) : new File(Cardinal.getInstance().getDataFolder(), path);
+    footprints = new MapFootprints(new File(Cardinal.getInstance().getDataFolder(), "footprints.yml"),
+        Cardinal.getInstance().getConfig().getInt("trimMargin", 32));
+    trimWorlds = Cardinal.getInstance().getConfig().getBoolean("trimMatchWorlds", false);
+    if (contains(matchesDirectory, Bukkit.getWorldContainer())
+        || contains(matchesDirectory, Cardinal.getInstance().getDataFolder())) {
+      Cardinal.getPluginLogger().severe("The matches directory " + matchesDirectory.getAbsolutePath()
+          + " contains the world container or the plugin data folder, leftover matches will not be deleted");
+      return;
+    }
+    File[] stale = matchesDirectory.listFiles(file -> file.isDirectory() && isMatchDirectory(file.getName()));
+    if (stale != null) {
+      Bukkit.getScheduler().runTaskAsynchronously(Cardinal.getInstance(), () -> {
+        for (File directory : stale) {
+          deleteMatchDirectory(directory);
+        }
+      });
+    }
+  }
+
+  private static boolean contains(File directory, File other) {
+    return other.getAbsoluteFile().toPath().normalize().startsWith(directory.getAbsoluteFile().toPath().normalize());
+  }
+
+  private static boolean isMatchDirectory(String name) {
+    try {
+      // Round trip, since fromString also accepts shortened forms
+      return UUID.fromString(name).toString().equals(name);
+    } catch (IllegalArgumentException ex) {
+      return false;
+    }
+  }
 
   /**
    * Creates a new cycle object for the initial server cycle.
@@ -85,37 +140,166 @@ public final class CycleModule extends AbstractListenerModule {
   }
 
   /**
-   * Initiates the cycling process.
+   * Cycles to the new version of a reloaded map. Matches already running keep the version they were loaded with.
+   *
+   * @param event The event.
+   */
+  @EventHandler
+  public void onRepositoryReload(RepositoryReloadEvent event) {
+    // Footprints were recorded from the old regions
+    event.getReloaded().keySet().forEach(footprints::remove);
+    nextCycle.values().forEach(runnable -> {
+      LoadedMap replacement = event.getReloaded().get(runnable.getMap());
+      if (replacement != null) {
+        runnable.setMap(replacement);
+      }
+    });
+  }
+
+  /**
+   * Initiates the cycling process. When the current world is reused, it is reverted over the next ticks first. The new
+   * match is then loaded, and players are sent into it once the chunks it needs are loaded. Until then the match
+   * thread keeps its current match, and can not be cycled again.
    *
-   * @return If the cycle was successful.
+   * @return If the cycle started.
    */
   public boolean cycle(MatchThread matchThread) {
+    if (!cycling.add(matchThread)) {
+      return false;
+    }
+    long start = System.nanoTime();
     Match old = matchThread.getCurrentMatch();
     CycleRunnable cycle = nextCycle.get(matchThread);
+    if (old != null && Cardinal.getModule(BlockJournalModule.class).takeWorld(old, cycle.getMap(), world -> {
+      // The next map may have changed while the world was being reverted
+      if (world != null && cycle.getMap() == old.getMap()) {
+        cycle.reuse(world);
+      } else {
+        cycle.run();
+      }
+      load(matchThread, cycle, old, start);
+    })) {
+      return true;
+    }
     cycle.run();
+    return load(matchThread, cycle, old, start);
+  }
+
+  /**
+   * Loads the match of a cycle whose world is ready, and announces it once its chunks are loaded.
+   *
+   * @return If the match loaded.
+   */
+  private boolean load(MatchThread matchThread, CycleRunnable cycle, Match old, long start) {
     Match match = new Match(matchThread, cycle.getUuid(), cycle.getMap(), cycle.getWorld());
     if (Cardinal.getInstance().getModuleHandler().loadMatch(match)) {
-      matchThread.setCurrentMatch(match);
-      matchThread.getPlayers().forEach(player -> {
-        PlayerContainerData oldData = PlayerContainerData.of(player);
-        PlayerContainerData newData = new PlayerContainerData(matchThread, null, null);
-        Containers.handleStateChangeEvent(player, oldData, newData);
-      });
-      Bukkit.getPluginManager().callEvent(new MatchLoadCompleteEvent(match));
+      footprints.record(match, Cardinal.getModule(ChunkPreloadModule.class).getRegions(match));
+      Bukkit.getScheduler().runTaskAsynchronously(Cardinal.getInstance(), footprints::save);
+      loading.put(matchThread, match);
       CycleRunnable next = new CycleRunnable(this, UUID.randomUUID());
-      next.setMap(Cardinal.getModule(RotationModule.class).getRotations().get(matchThread).getNext());
       nextCycle.put(matchThread, next);
-      if (old != null) {
-        Bukkit.getScheduler()
-            .scheduleSyncDelayedTask(Cardinal.getInstance(), () -> Bukkit.unloadWorld(old.getWorld(), true), 1);
-      }
+      next.setMap(Cardinal.getModule(RotationModule.class).getRotations().get(matchThread).getNext());
+      Cardinal.getModule(ChunkPreloadModule.class).whenLoaded(match, () -> announce(match, old, start));
       return true;
     } else {
+      cycling.remove(matchThread);
       Bukkit.getLogger().log(Level.SEVERE, "Failed to load map:" + match.getMap().getName());
       return false;
     }
   }
 
+  /**
+   * Makes a loaded match the current match of its thread, and sends the thread's players into it.
+   *
+   * @param match The match.
+   * @param old   The match it replaces, or null if there is none.
+   * @param start When the cycle started, in nanoseconds.
+   */
+  private void announce(Match match, Match old, long start) {
+    MatchThread matchThread = match.getMatchThread();
+    loading.remove(matchThread);
+    cycling.remove(matchThread);
+    matchThread.setCurrentMatch(match);
+    matchThread.getPlayers().forEach(player -> {
+      PlayerContainerData oldData = PlayerContainerData.of(player);
+      PlayerContainerData newData = new PlayerContainerData(matchThread, null, null);
+      Containers.handleStateChangeEvent(player, oldData, newData);
+    });
+    Bukkit.getPluginManager().callEvent(new MatchLoadCompleteEvent(match));
+    if (old != null) {
+      Bukkit.getScheduler().scheduleSyncDelayedTask(Cardinal.getInstance(), () -> unloadMatch(old), 1);
+    }
+    Cardinal.getPluginLogger().info("Cycled to " + match.getMap().getName() + " in "
+        + (System.nanoTime() - start) / 1000000 + "ms");
+  }
+
+  /**
+   * Clears a finished match from every module, unloads its world without saving, and deletes its directory. Worlds
+   * reused by the next match are kept.
+   *
+   * @param match The match.
+   */
+  private void unloadMatch(Match match) {
+    Cardinal.getInstance().getModuleHandler().clearMatch(match);
+    World world = match.getWorld();
+    if (world.equals(match.getMatchThread().getCurrentMatch().getWorld())) {
+      return;
+    }
+    File directory = world.getWorldFolder();
+    if (Bukkit.unloadWorld(world, false)) {
+      Bukkit.getScheduler().runTaskAsynchronously(Cardinal.getInstance(), () -> deleteMatchDirectory(directory));
+    } else {
+      Cardinal.getPluginLogger().warning("Could not unload " + world.getName() + ", its directory was kept");
+    }
+  }
+
+  void deleteMatchDirectory(File directory) {
+    long start = System.nanoTime();
+    try {
+      long bytes = MatchDirectories.delete(directory);
+      Cardinal.getPluginLogger().info("Deleted " + bytes / 1024 + " KiB in " + directory.getName() + " in "
+          + (System.nanoTime() - start) / 1000000 + "ms");
+    } catch (IOException ex) {
+      Cardinal.getPluginLogger().log(Level.WARNING, "Could not delete " + directory.getAbsolutePath(), ex);
+    }
+  }
+
+  /**
+   * @param runnable The next cycle of a match thread.
+   * @param map      The map it cycles to.
+   * @return If the thread's current world is going to be reverted and reused for the map.
+   */
+  boolean canReuse(@NonNull CycleRunnable runnable, LoadedMap map) {
+    for (Map.Entry<MatchThread, CycleRunnable> entry : nextCycle.entrySet()) {
+      if (entry.getValue() == runnable) {
+        // A match that is still loading is the one the next cycle follows
+        Match current = loading.getOrDefault(entry.getKey(), entry.getKey().getCurrentMatch());
+        return current != null && Cardinal.getModule(BlockJournalModule.class).canReuse(current, map);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Stages the next map of a match thread after all, once its current world can no longer be reused.
+   *
+   * @param matchThread The match thread.
+   */
+  void restage(@NonNull MatchThread matchThread) {
+    CycleRunnable next = nextCycle.get(matchThread);
+    if (next != null) {
+      next.restage();
+    }
+  }
+
+  /**
+   * @param map The map.
+   * @return The chunks to keep when staging the map, or null to copy its whole world.
+   */
+  MapFootprints.Footprint getFootprint(@NonNull LoadedMap map) {
+    return trimWorlds ? footprints.get(map) : null;
+  }
+
   public LoadedMap getNextMap(@NonNull MatchThread matchThread) {
     return nextCycle.get(matchThread).getMap();
   }
@@ -25,20 +25,25 @@
 
 package in.twizmwaz.cardinal.module.cycle;
 
-import com.google.common.io.Files;
 import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.module.repository.LoadedMap;
+import in.twizmwaz.cardinal.module.repository.RepositoryModule;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import org.apache.commons.lang.Validate;
+import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.WorldCreator;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
 
 @RequiredArgsConstructor
 @Getter
@@ -48,41 +53,114 @@ public final class CycleRunnable implements Runnable {
   private final CycleModule parent;
   @NonNull
   private final UUID uuid;
-  @Setter
-  private LoadedMap map;
+  private volatile LoadedMap map;
   private World world;
   private File matchFile;
+  @Getter(AccessLevel.NONE)
+  private CompletableFuture<Void> staging = CompletableFuture.completedFuture(null);
+  @Getter(AccessLevel.NONE)
+  private volatile LoadedMap stagedMap;
+  @Getter(AccessLevel.NONE)
+  private boolean deferred;
+
+  /**
+   * Sets the map to cycle to, then starts loading its document and copying its world in the background, so only
+   * world creation is left for the cycle itself.
+   *
+   * @param map The map.
+   */
+  public void setMap(LoadedMap map) {
+    this.map = map;
+    if (map != null) {
+      Cardinal.getModule(RepositoryModule.class).prefetchDocument(map);
+      stage(map);
+    }
+  }
 
   @Override
   public void run() {
     Validate.notNull(map);
     Cardinal.getPluginLogger().info("Cycling to map " + map.getName());
-    File dest = new File(Cardinal.getInstance().getDataFolder(), "matches/" + uuid.toString());
-    dest.mkdir();
+    File dest = getStagingDirectory();
     try {
-      copyDirectory(map.getDirectory(), dest);
-    } catch (IOException ex) {
-      ex.printStackTrace();
+      getStaging().join();
+    } catch (CompletionException ex) {
+      Cardinal.getPluginLogger().log(Level.WARNING, "Could not stage " + map.getName(), ex);
+    }
+    if (stagedMap != map) {
+      Cardinal.getPluginLogger().info("Copying " + map.getName() + " now");
+      try {
+        MatchDirectories.copy(map.getDirectory(), dest, parent.getFootprint(map));
+      } catch (IOException copyEx) {
+        copyEx.printStackTrace();
+      }
     }
-    Cardinal.getPluginLogger().info(dest.getPath());
-    World world = new WorldCreator(dest.getPath()).generator(new NullChunkGenerator()).createWorld();
+    // World names are resolved against the world container, so a matches directory elsewhere needs a relative name
+    String name = Bukkit.getWorldContainer().getAbsoluteFile().toPath().normalize()
+        .relativize(dest.getAbsoluteFile().toPath().normalize()).toString();
+    Cardinal.getPluginLogger().info(name);
+    World world = new WorldCreator(name).generator(new NullChunkGenerator()).createWorld();
     world.setPVP(true);
     this.world = world;
     this.matchFile = dest;
   }
 
-  private void copyDirectory(File source, File dest) throws IOException {
-    if (source.isDirectory()) {
-      if (!dest.exists()) {
-        dest.mkdir();
+  /**
+   * Cycles into a world that was reverted in place instead of a fresh copy, dropping anything staged for it.
+   *
+   * @param world The reverted world.
+   */
+  void reuse(@NonNull World world) {
+    Validate.notNull(map);
+    Cardinal.getPluginLogger().info("Cycling to map " + map.getName() + " in its reverted world");
+    this.world = world;
+    this.matchFile = world.getWorldFolder();
+    File dest = getStagingDirectory();
+    getStaging().whenComplete((result, ex) -> Bukkit.getScheduler().runTaskAsynchronously(Cardinal.getInstance(),
+        () -> parent.deleteMatchDirectory(dest)));
+  }
+
+  /**
+   * Stages the map after all if staging was left out because the current world was going to be reused.
+   */
+  synchronized void restage() {
+    if (deferred && map != null) {
+      stage(map);
+    }
+  }
+
+  private synchronized CompletableFuture<Void> getStaging() {
+    return staging;
+  }
+
+  /**
+   * Copies a map's world into this cycle's match directory, after any earlier staging finishes. Staging for a map
+   * that was replaced before its turn is skipped, and so is staging a map whose current world can be reverted.
+   */
+  private synchronized void stage(LoadedMap map) {
+    deferred = parent.canReuse(this, map);
+    if (deferred) {
+      return;
+    }
+    File dest = getStagingDirectory();
+    staging = staging.handle((result, ex) -> null).thenRunAsync(() -> {
+      if (this.map != map) {
+        return;
       }
-      String[] children = source.list();
-      for (String child : children) {
-        copyDirectory(new File(source, child), new File(dest, child));
+      long start = System.nanoTime();
+      try {
+        MatchDirectories.copy(map.getDirectory(), dest, parent.getFootprint(map));
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
       }
-    } else {
-      Files.copy(source, dest);
-    }
+      stagedMap = map;
+      Cardinal.getPluginLogger().info("Staged " + map.getName() + " in " + (System.nanoTime() - start) / 1000000
+          + "ms");
+    }, task -> Bukkit.getScheduler().runTaskAsynchronously(Cardinal.getInstance(), task));
+  }
+
+  private File getStagingDirectory() {
+    return new File(parent.getMatchesDirectory(), uuid.toString());
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.cycle;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.match.Match;
+import in.twizmwaz.cardinal.module.region.Region;
+import in.twizmwaz.cardinal.module.repository.LoadedMap;
+import in.twizmwaz.cardinal.module.repository.MapArchives;
+import lombok.Data;
+import lombok.NonNull;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.util.Cuboid;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The chunks each map's bounded regions (spawns, objectives and every other parsed region) covered the last time it
+ * was played, stored between restarts. Staging uses them to leave region files and chunks nobody can reach out of
+ * match worlds. A footprint is dropped once the map's map.xml or archive changes, since its regions may have moved.
+ */
+class MapFootprints {
+
+  private static final int VERSION = 2;
+
+  private final File file;
+  private final int margin;
+  private final Map<String, Footprint> footprints = Maps.newConcurrentMap();
+
+  /**
+   * Creates a store backed by a file, reading any footprints already stored in it.
+   *
+   * @param file   The file the footprints are stored in.
+   * @param margin The number of blocks kept around the regions.
+   */
+  MapFootprints(@NonNull File file, int margin) {
+    this.file = file;
+    this.margin = margin;
+    if (!file.exists()) {
+      return;
+    }
+    YamlConfiguration config = new YamlConfiguration();
+    try {
+      config.load(file);
+    } catch (IOException | InvalidConfigurationException ex) {
+      Cardinal.getPluginLogger().warning("Could not read map footprints " + file + ", maps will be copied whole");
+      return;
+    }
+    if (config.getInt("version") != VERSION) {
+      return;
+    }
+    for (Map<?, ?> raw : config.getMapList("maps")) {
+      try {
+        Footprint footprint = Footprint.deserialize(raw);
+        footprints.put(footprint.getDirectory(), footprint);
+      } catch (ClassCastException | NullPointerException ex) {
+        // A broken entry only means that map is copied whole
+      }
+    }
+  }
+
+  /**
+   * @param map The map.
+   * @return The map's footprint, or null if it is unknown or its map.xml changed since it was recorded.
+   */
+  Footprint get(@NonNull LoadedMap map) {
+    Footprint footprint = footprints.get(map.getDirectory().getAbsolutePath());
+    if (footprint == null || footprint.getModified() != getModified(map.getDirectory())) {
+      return null;
+    }
+    return footprint;
+  }
+
+  /**
+   * Records the area covered by a loaded match's bounded regions. Maps without any bounded region get no footprint.
+   *
+   * @param match   The match.
+   * @param regions Every region the match is played in.
+   */
+  void record(@NonNull Match match, @NonNull List<? extends Region> regions) {
+    int minX = Integer.MAX_VALUE;
+    int minZ = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxZ = Integer.MIN_VALUE;
+    for (Region region : regions) {
+      if (region == null || !region.isBounded()) {
+        continue;
+      }
+      Cuboid cuboid = region.getBounds().getCuboid();
+      if (!cuboid.isFinite() || cuboid.minimum().getX() > cuboid.maximum().getX()) {
+        continue;
+      }
+      minX = Math.min(minX, (cuboid.minimum().getBlockX() - margin) >> 4);
+      minZ = Math.min(minZ, (cuboid.minimum().getBlockZ() - margin) >> 4);
+      maxX = Math.max(maxX, (cuboid.maximum().getBlockX() + margin) >> 4);
+      maxZ = Math.max(maxZ, (cuboid.maximum().getBlockZ() + margin) >> 4);
+    }
+    File directory = match.getMap().getDirectory();
+    if (minX > maxX) {
+      footprints.remove(directory.getAbsolutePath());
+      return;
+    }
+    footprints.put(directory.getAbsolutePath(), new Footprint(directory.getAbsolutePath(),
+        getModified(directory), minX, minZ, maxX, maxZ));
+  }
+
+  /**
+   * Forgets a map's footprint.
+   *
+   * @param map The map.
+   */
+  void remove(@NonNull LoadedMap map) {
+    footprints.remove(map.getDirectory().getAbsolutePath());
+  }
+
+  /**
+   * Writes the footprints to their file.
+   */
+  synchronized void save() {
+    YamlConfiguration config = new YamlConfiguration();
+    config.set("version", VERSION);
+    List<Map<String, Object>> maps = Lists.newArrayList();
+    footprints.values().forEach(footprint -> maps.add(footprint.serialize()));
+    config.set("maps", maps);
+    try {
+      config.save(file);
+    } catch (IOException ex) {
+      Cardinal.getPluginLogger().warning("Could not save map footprints to " + file);
+    }
+  }
+
+  private static long getModified(File directory) {
+    return MapArchives.isArchive(directory) ? directory.lastModified() : new File(directory, "map.xml").lastModified();
+  }
+
+  /**
+   * An inclusive rectangle of chunk coordinates.
+   */
+  @Data
+  static final class Footprint {
+
+    private final String directory;
+    private final long modified;
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+
+    boolean containsChunk(int x, int z) {
+      return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+    }
+
+    boolean intersectsRegion(int x, int z) {
+      return (x << 5) <= maxX && (x << 5) + 31 >= minX && (z << 5) <= maxZ && (z << 5) + 31 >= minZ;
+    }
+
+    private Map<String, Object> serialize() {
+      Map<String, Object> result = Maps.newLinkedHashMap();
+      result.put("directory", directory);
+      result.put("modified", modified);
+      result.put("minX", minX);
+      result.put("minZ", minZ);
+      result.put("maxX", maxX);
+      result.put("maxZ", maxZ);
+      return result;
+    }
+
+    private static Footprint deserialize(Map<?, ?> raw) {
+      return new Footprint((String) raw.get("directory"), ((Number) raw.get("modified")).longValue(),
+          ((Number) raw.get("minX")).intValue(), ((Number) raw.get("minZ")).intValue(),
+          ((Number) raw.get("maxX")).intValue(), ((Number) raw.get("maxZ")).intValue());
+    }
+
+  }
+
+}
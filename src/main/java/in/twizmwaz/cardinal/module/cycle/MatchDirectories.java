@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.cycle;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import in.twizmwaz.cardinal.module.cycle.MapFootprints.Footprint;
+import in.twizmwaz.cardinal.module.repository.MapArchives;
+import lombok.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * File operations for match world directories.
+ */
+class MatchDirectories {
+
+  private static final Pattern REGION_FILE = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+  private static final int SECTOR_SIZE = 4096;
+  private static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+
+  /**
+   * Replaces the destination with a copy of the source, creating directories first and then copying files in
+   * parallel.
+   *
+   * @param source The directory to copy.
+   * @param dest   The directory to copy to.
+   */
+  static void copy(@NonNull File source, @NonNull File dest) throws IOException {
+    copy(source, dest, null);
+  }
+
+  /**
+   * Replaces the destination with a copy of the source, leaving out overworld region files and chunks outside a
+   * footprint.
+   *
+   * @param source    The directory or map archive to copy.
+   * @param dest      The directory to copy to.
+   * @param footprint The chunks to keep, or null to copy everything.
+   */
+  static void copy(@NonNull File source, @NonNull File dest, Footprint footprint) throws IOException {
+    if (MapArchives.isArchive(source)) {
+      extract(source, dest, footprint);
+      return;
+    }
+    Path sourcePath = source.toPath();
+    Path regions = sourcePath.resolve("region");
+    Path destPath = dest.toPath();
+    delete(dest);
+    List<Path> files = Lists.newArrayList();
+    try (Stream<Path> paths = Files.walk(sourcePath)) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        Path target = destPath.resolve(sourcePath.relativize(path).toString());
+        if (Files.isDirectory(path)) {
+          Files.createDirectories(target);
+        } else {
+          files.add(path);
+        }
+      }
+    }
+    try {
+      files.parallelStream().forEach(path -> {
+        try {
+          Path target = destPath.resolve(sourcePath.relativize(path).toString());
+          Matcher matcher = REGION_FILE.matcher(path.getFileName().toString());
+          if (footprint != null && regions.equals(path.getParent()) && matcher.matches()) {
+            trimRegion(Files.readAllBytes(path), target, Integer.parseInt(matcher.group(1)),
+                Integer.parseInt(matcher.group(2)), footprint);
+          } else {
+            Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+          }
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /**
+   * Replaces the destination with the map in an archive, streaming each entry straight into place. Region files
+   * outside a footprint are trimmed as they would be when copying.
+   *
+   * @param archive   The archive.
+   * @param dest      The directory to extract to.
+   * @param footprint The chunks to keep, or null to extract everything.
+   */
+  private static void extract(File archive, File dest, Footprint footprint) throws IOException {
+    Path destPath = dest.toPath();
+    delete(dest);
+    Files.createDirectories(destPath);
+    try (ZipFile zip = new ZipFile(archive)) {
+      String root = MapArchives.getRoot(zip);
+      if (root == null) {
+        throw new IOException("No map found in " + archive);
+      }
+      List<ZipEntry> entries = Lists.newArrayList();
+      for (ZipEntry entry : Collections.list(zip.entries())) {
+        if (!entry.getName().startsWith(root) || entry.getName().length() == root.length()) {
+          continue;
+        }
+        Path target = destPath.resolve(entry.getName().substring(root.length())).normalize();
+        if (!target.startsWith(destPath)) {
+          throw new IOException("Entry " + entry.getName() + " is outside the map in " + archive);
+        }
+        if (entry.isDirectory()) {
+          Files.createDirectories(target);
+        } else {
+          Files.createDirectories(target.getParent());
+          entries.add(entry);
+        }
+      }
+      Path regions = destPath.resolve("region");
+      entries.parallelStream().forEach(entry -> {
+        Path target = destPath.resolve(entry.getName().substring(root.length())).normalize();
+        Matcher matcher = REGION_FILE.matcher(target.getFileName().toString());
+        try (InputStream in = zip.getInputStream(entry)) {
+          if (footprint != null && regions.equals(target.getParent()) && matcher.matches()) {
+            trimRegion(ByteStreams.toByteArray(in), target, Integer.parseInt(matcher.group(1)),
+                Integer.parseInt(matcher.group(2)), footprint);
+          } else {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+          }
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /**
+   * Writes the chunks of an anvil region file that are inside a footprint, packing them into consecutive sectors.
+   * Nothing is written if none of them are.
+   */
+  private static void trimRegion(byte[] data, Path target, int regionX, int regionZ, Footprint footprint)
+      throws IOException {
+    if (!footprint.intersectsRegion(regionX, regionZ)) {
+      return;
+    }
+    if (data.length < HEADER_SIZE) {
+      Files.write(target, data);
+      return;
+    }
+    ByteBuffer in = ByteBuffer.wrap(data);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    ByteArrayOutputStream chunks = new ByteArrayOutputStream(data.length);
+    int sector = HEADER_SIZE / SECTOR_SIZE;
+    for (int i = 0; i < 1024; i++) {
+      int location = in.getInt(i * 4);
+      int offset = location >>> 8;
+      int count = location & 0xFF;
+      // Offsets go up to 2^24 sectors, so a corrupt entry can point far past the end of the file
+      long start = (long) offset * SECTOR_SIZE;
+      if (count == 0 || offset < HEADER_SIZE / SECTOR_SIZE || start >= data.length
+          || !footprint.containsChunk((regionX << 5) + (i & 31), (regionZ << 5) + (i >> 5))) {
+        continue;
+      }
+      // The last chunk in a file is not always padded to a full sector
+      int length = (int) Math.min(count * SECTOR_SIZE, data.length - start);
+      chunks.write(data, (int) start, length);
+      for (int pad = length; pad < count * SECTOR_SIZE; pad++) {
+        chunks.write(0);
+      }
+      header.putInt(i * 4, sector << 8 | count);
+      header.putInt(SECTOR_SIZE + i * 4, in.getInt(SECTOR_SIZE + i * 4));
+      sector += count;
+    }
+    if (chunks.size() == 0) {
+      return;
+    }
+    try (OutputStream out = Files.newOutputStream(target)) {
+      out.write(header.array());
+      chunks.writeTo(out);
+    }
+  }
+
+  /**
+   * Deletes a directory and everything in it.
+   *
+   * @param directory The directory to delete.
+   * @return The number of bytes deleted.
+   */
+  static long delete(@NonNull File directory) throws IOException {
+    Path path = directory.toPath();
+    if (!Files.exists(path)) {
+      return 0;
+    }
+    List<Path> toDelete;
+    try (Stream<Path> paths = Files.walk(path)) {
+      toDelete = paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+    }
+    long bytes = 0;
+    for (Path file : toDelete) {
+      if (Files.isRegularFile(file)) {
+        bytes += Files.size(file);
+      }
+      Files.delete(file);
+    }
+    return bytes;
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.kit;
+
+import com.google.common.collect.Lists;
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.match.Match;
+import in.twizmwaz.cardinal.module.filter.FilterModule;
+import in.twizmwaz.cardinal.module.kit.type.KitCluster;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The world-independent definition of a kit. The parsed items, effects and attributes are shared by every match of a
+ * map, only the filter and parent resolution is done per match.
+ */
+@Data
+public final class KitDefinition {
+
+  private final String id;
+  private final String filter;
+  private final boolean force;
+  private final boolean potionParticles;
+  private final boolean discardPotionBottles;
+  private final boolean resetEnderPearls;
+  private final List<String> parents;
+  private final List<Kit> children;
+
+  /**
+   * Creates the kit for a match.
+   *
+   * @param match The match.
+   * @return The kit cluster.
+   */
+  public KitCluster createKit(Match match) {
+    return new KitCluster(match, Cardinal.getModule(FilterModule.class).getFilter(match, filter), force,
+        potionParticles, discardPotionBottles, resetEnderPearls,
+        parents != null ? Lists.newArrayList(parents) : null, children);
+  }
+
+}
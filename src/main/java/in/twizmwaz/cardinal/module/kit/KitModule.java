@@ -26,12 +26,13 @@
 package in.twizmwaz.cardinal.module.kit;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.event.repository.RepositoryReloadEvent;
 import in.twizmwaz.cardinal.match.Match;
-import in.twizmwaz.cardinal.module.AbstractModule;
+import in.twizmwaz.cardinal.module.AbstractListenerModule;
 import in.twizmwaz.cardinal.module.ModuleEntry;
-import in.twizmwaz.cardinal.module.filter.Filter;
 import in.twizmwaz.cardinal.module.filter.FilterModule;
 import in.twizmwaz.cardinal.module.id.IdModule;
 import in.twizmwaz.cardinal.module.kit.listener.DoubleJumpListener;
@@ -39,7 +40,6 @@ import in.twizmwaz.cardinal.module.kit.listener.ShieldListener;
 import in.twizmwaz.cardinal.module.kit.type.KitArmor;
 import in.twizmwaz.cardinal.module.kit.type.KitAttribute;
 import in.twizmwaz.cardinal.module.kit.type.KitClear;
-import in.twizmwaz.cardinal.module.kit.type.KitCluster;
 import in.twizmwaz.cardinal.module.kit.type.KitDoubleJump;
 import in.twizmwaz.cardinal.module.kit.type.KitFly;
 import in.twizmwaz.cardinal.module.kit.type.KitGameMode;
@@ -48,6 +48,7 @@ import in.twizmwaz.cardinal.module.kit.type.KitItem;
 import in.twizmwaz.cardinal.module.kit.type.KitKnockback;
 import in.twizmwaz.cardinal.module.kit.type.KitPotion;
 import in.twizmwaz.cardinal.module.kit.type.KitWalkSpeed;
+import in.twizmwaz.cardinal.module.repository.LoadedMap;
 import in.twizmwaz.cardinal.util.ArmorType;
 import in.twizmwaz.cardinal.util.Numbers;
 import in.twizmwaz.cardinal.util.Strings;
@@ -55,11 +56,12 @@ import in.twizmwaz.cardinal.util.document.DocumentItems;
 import lombok.NonNull;
 import org.bukkit.GameMode;
 import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.event.EventHandler;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionEffect;
 import org.jdom2.Element;
 
-import java.util.AbstractMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -67,7 +69,9 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @ModuleEntry(depends = {IdModule.class, FilterModule.class})
-public class KitModule extends AbstractModule {
+public class KitModule extends AbstractListenerModule {
+
+  private final Map<LoadedMap, List<KitDefinition>> definitions = Maps.newHashMap();
 
   public KitModule() {
     Cardinal.registerEvents(new DoubleJumpListener());
@@ -76,20 +80,51 @@ public class KitModule extends AbstractModule {
 
   @Override
   public boolean loadMatch(Match match) {
-    for (Element kits : match.getMap().getDocument().getRootElement().getChildren("kits")) {
+    for (KitDefinition definition : getDefinitions(match.getMap())) {
+      IdModule.get().add(match, definition.getId(), definition.createKit(match));
+    }
+    return true;
+  }
+
+  /**
+   * Gets the kit definitions of a map, parsing them the first time the map is loaded.
+   *
+   * @param map The map.
+   * @return The kit definitions, in document order.
+   */
+  public List<KitDefinition> getDefinitions(@NonNull LoadedMap map) {
+    return definitions.computeIfAbsent(map, this::parseDefinitions);
+  }
+
+  /**
+   * Drops the definitions of reloaded maps, they are parsed again from the new documents.
+   *
+   * @param event The event called.
+   */
+  @EventHandler
+  public void onRepositoryReload(RepositoryReloadEvent event) {
+    event.getReloaded().keySet().forEach(definitions::remove);
+  }
+
+  private List<KitDefinition> parseDefinitions(LoadedMap map) {
+    List<KitDefinition> results = Lists.newArrayList();
+    for (Element kits : map.getDocument().getRootElement().getChildren("kits")) {
       for (Element element : kits.getChildren("kit")) {
-        Map.Entry<String, Kit> entry = parseKit(match, element);
-        IdModule.get().add(match, entry.getKey(), entry.getValue());
+        KitDefinition definition = parseKit(element);
+        if (results.stream().noneMatch(other -> other.getId() != null
+            && other.getId().equalsIgnoreCase(definition.getId()))) {
+          results.add(definition);
+        }
       }
     }
-    return true;
+    return Collections.unmodifiableList(results);
   }
 
   public Kit getKit(@NonNull Match match, @NonNull String id) {
     return IdModule.get().get(match, id, Kit.class);
   }
 
-  private Map.Entry<String, Kit> parseKit(Match match, Element element) {
+  private KitDefinition parseKit(Element element) {
     List<Kit> kits = Lists.newArrayList();
     String name = null;
     if (element.getAttributeValue("name") != null) {
@@ -98,11 +133,6 @@ public class KitModule extends AbstractModule {
     if (element.getAttributeValue("id") != null) {
       name = element.getAttributeValue("id");
     }
-    for (Map.Entry<String, Kit> kitPair : IdModule.get().getMap(match, Kit.class).entrySet()) {
-      if (kitPair.getKey().equalsIgnoreCase(name)) {
-        return kitPair;
-      }
-    }
     boolean clear = element.getChildren("clear").size() > 0;
     boolean clearItems = element.getChildren("clear-items").size() > 0;
     if (clear || clearItems) {
@@ -170,8 +200,7 @@ public class KitModule extends AbstractModule {
       float flySpeed = Float.parseFloat(jump.getAttributeValue("fly-speed", "1")) / 10F;
       kits.add(new KitFly(canFly, flying, flySpeed));
     }
-    Filter filter =
-        Cardinal.getModule(FilterModule.class).getFilter(match, element.getAttributeValue("filter", "always"));
+    String filter = element.getAttributeValue("filter", "always");
     String parent = element.getAttributeValue("parents", (String) null);
     List<String> parents = Lists.newArrayList();
     if (parent != null) {
@@ -188,8 +217,8 @@ public class KitModule extends AbstractModule {
     boolean potionParticles = Numbers.parseBoolean(element.getAttributeValue("potion-particles"), false);
     boolean discardPotionBottles = Numbers.parseBoolean(element.getAttributeValue("discard-potion-bottles"), true);
     boolean resetPearls = Numbers.parseBoolean(element.getAttributeValue("reset-ender-pearls"), false);
-    return new AbstractMap.SimpleEntry<>(name,
-        new KitCluster(match, filter, force, potionParticles, discardPotionBottles, resetPearls, parents, kits));
+    return new KitDefinition(name, filter, force, potionParticles, discardPotionBottles, resetPearls,
+        parents != null ? Collections.unmodifiableList(parents) : null, Collections.unmodifiableList(kits));
   }
 
 }
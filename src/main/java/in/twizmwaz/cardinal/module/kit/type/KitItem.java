@@ -25,102 +25,161 @@
 
 package in.twizmwaz.cardinal.module.kit.type;
 
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import in.twizmwaz.cardinal.module.kit.Kit;
 import in.twizmwaz.cardinal.util.Items;
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-@AllArgsConstructor
 public class KitItem implements Kit {
 
-  private final Set<Item> items;
+  private final List<Entry> plan;
+  private final Map<Material, List<Entry>> entries = Maps.newEnumMap(Material.class);
+
+  /**
+   * Creates a kit of items, and plans how to give them. The plan compares items by a fingerprint without durability,
+   * worked out once here instead of on every apply.
+   *
+   * @param items The items of the kit.
+   */
+  public KitItem(Set<Item> items) {
+    List<Entry> plan = Lists.newArrayList();
+    for (Item item : items) {
+      Entry entry = new Entry(plan.size(), item);
+      plan.add(entry);
+      entries.computeIfAbsent(entry.item.getType(), type -> Lists.newArrayList()).add(entry);
+    }
+    this.plan = ImmutableList.copyOf(plan);
+  }
 
   @Override
   public void apply(Player player, boolean force) {
     PlayerInventory inventory = player.getInventory();
-    Set<Item> items = cloneItems(this.items);
-
-    // Remove kit items that the player already has
-    for (ItemStack item : inventory.getContents()) {
-      if (item != null) {
-        ItemStack itemClone = item.clone();
-        for (Item item2 : items) {
-          if (Items.itemsEqual(item2.getItem(), item) && !(item2.getItem().getDurability() < item.getDurability())) {
-            int remove = itemClone.getAmount();
-            if (item2.getItem().getAmount() < remove) {
-              remove = item2.getItem().getAmount();
-            }
-            itemClone.setAmount(itemClone.getAmount() - remove);
-            item2.getItem().setAmount(item2.getItem().getAmount() - remove);
-          }
+    ItemStack[] contents = inventory.getContents();
+    int[] amounts = new int[plan.size()];
+    for (Entry entry : plan) {
+      amounts[entry.index] = entry.item.getAmount();
+    }
+
+    // One pass over the inventory: remove kit items that the player already has, and remember the stacks each kit
+    // item could repair or stack onto
+    @SuppressWarnings("unchecked")
+    List<ItemStack>[] matches = new List[plan.size()];
+    for (ItemStack stack : contents) {
+      if (stack == null) {
+        continue;
+      }
+      List<Entry> candidates = entries.get(stack.getType());
+      if (candidates == null) {
+        continue;
+      }
+      ItemStack fingerprint = stack.getDurability() == 0 ? stack : Items.toMaxDurability(stack);
+      int left = stack.getAmount();
+      for (Entry entry : candidates) {
+        if (!entry.fingerprint.isSimilar(fingerprint)) {
+          continue;
+        }
+        if (matches[entry.index] == null) {
+          matches[entry.index] = Lists.newArrayList();
+        }
+        matches[entry.index].add(stack);
+        if (entry.durability >= stack.getDurability()) {
+          int remove = Math.min(left, amounts[entry.index]);
+          left -= remove;
+          amounts[entry.index] -= remove;
         }
       }
     }
 
-    for (Item item : items) {
-      ItemStack kitItem = item.getItem();
-      if (!item.hasSlot()) {
-        inventory.addItem(kitItem);
+    for (Entry entry : plan) {
+      int amount = amounts[entry.index];
+      List<ItemStack> stacks = matches[entry.index] == null ? ImmutableList.of() : matches[entry.index];
+      if (!entry.hasSlot()) {
+        if (amount > 0) {
+          inventory.addItem(entry.getItem(amount));
+        }
         continue;
       }
       if (force) {
-        setPlayerItem(player, item.getSlot(), kitItem);
-      } else {
-        // Repair tools
-        if (kitItem.getAmount() > 0 && kitItem.getType().getMaxDurability() > 0) {
-          for (ItemStack item2 : inventory.getContents()) {
-            if (item2 == null) {
-              continue;
-            }
-            if (Items.itemsEqual(kitItem, item2) && kitItem.getDurability() < item2.getDurability()) {
-              item2.setDurability(kitItem.getDurability());
-              kitItem.setAmount(0);
-              break;
-            }
+        setPlayerItem(player, entry.slot, entry.getItem(amount));
+        continue;
+      }
+      // Repair tools
+      if (amount > 0 && entry.repairable) {
+        for (ItemStack stack : stacks) {
+          if (entry.durability < stack.getDurability()) {
+            stack.setDurability(entry.durability);
+            amount = 0;
+            break;
           }
         }
-        // Stack items
-        if (kitItem.getAmount() > 0) {
-          for (ItemStack item2 : inventory.getContents()) {
-            if (item2 != null && kitItem.getAmount() != 0
-                && Items.itemsEqual(kitItem, item2) && item2.getAmount() < item2.getMaxStackSize()) {
-              int max = Math.min(item2.getMaxStackSize() - item2.getAmount(), kitItem.getAmount());
-              item2.setAmount(item2.getAmount() + max);
-              kitItem.setAmount(kitItem.getAmount() - max);
-            }
-          }
+      }
+      // Stack items
+      for (ItemStack stack : stacks) {
+        if (amount == 0) {
+          break;
         }
-        // Put item in slot or give item
-        if (kitItem.getAmount() > 0) {
-          if (inventory.getItem(item.getSlot()) == null) {
-            setPlayerItem(player, item.getSlot(), kitItem);
-          } else {
-            inventory.addItem(kitItem);
-          }
+        if (stack.getAmount() < stack.getMaxStackSize()) {
+          int max = Math.min(stack.getMaxStackSize() - stack.getAmount(), amount);
+          stack.setAmount(stack.getAmount() + max);
+          amount -= max;
+        }
+      }
+      // Put item in slot or give item
+      if (amount > 0) {
+        if (inventory.getItem(entry.slot) == null) {
+          setPlayerItem(player, entry.slot, entry.getItem(amount));
+        } else {
+          inventory.addItem(entry.getItem(amount));
         }
       }
     }
+  }
 
+  private static void setPlayerItem(Player player, int slot, ItemStack item) {
+    player.getInventory().setItem(slot, item);
   }
 
-  private static Set<Item> cloneItems(Collection<Item> items) {
-    Set<Item> clone = Sets.newHashSet();
-    for (Item item : items) {
-      clone.add(item.getCopy());
+  /**
+   * A kit item as planned when the kit is created. The item is never given out itself, only copies of it.
+   */
+  private static class Entry {
+
+    private final int index;
+    private final ItemStack item;
+    private final int slot;
+    private final ItemStack fingerprint;
+    private final short durability;
+    private final boolean repairable;
+
+    private Entry(int index, Item item) {
+      this.index = index;
+      this.item = item.getItem().clone();
+      slot = item.getSlot();
+      fingerprint = Items.toMaxDurability(this.item);
+      durability = this.item.getDurability();
+      repairable = this.item.getType().getMaxDurability() > 0;
     }
-    return clone;
-  }
 
+    private boolean hasSlot() {
+      return slot != -1;
+    }
+
+    private ItemStack getItem(int amount) {
+      ItemStack item = this.item.clone();
+      item.setAmount(amount);
+      return item;
+    }
 
-  private static void setPlayerItem(Player player, int slot, ItemStack item) {
-    player.getInventory().setItem(slot, item);
   }
 
   @Data
@@ -133,10 +192,6 @@ public class KitItem implements Kit {
       return getSlot() != -1;
     }
 
-    Item getCopy() {
-      return new Item(item.clone(), this.slot);
-    }
-
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.life;
+
+import in.twizmwaz.cardinal.module.AbstractListenerModule;
+import in.twizmwaz.cardinal.module.ModuleEntry;
+import in.twizmwaz.cardinal.util.IntIntMap;
+import lombok.NonNull;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+/**
+ * Numbers the lives of players. Every death and respawn moves a player on to a life number no player has had before,
+ * so anything stamped with a life number can tell if it happened during the player's current life by comparison.
+ */
+@ModuleEntry
+public class LifeModule extends AbstractListenerModule {
+
+  private final IntIntMap lives = new IntIntMap(0);
+  private int lastLife;
+
+  /**
+   * @param player The player.
+   * @return The number of the player's current life.
+   */
+  public int getLife(@NonNull Player player) {
+    return lives.get(player.getEntityId());
+  }
+
+  private void nextLife(Player player) {
+    lives.put(player.getEntityId(), ++lastLife);
+  }
+
+  @EventHandler(priority = EventPriority.LOWEST)
+  public void onPlayerDeath(PlayerDeathEvent event) {
+    nextLife(event.getEntity());
+  }
+
+  @EventHandler(priority = EventPriority.LOWEST)
+  public void onPlayerRespawn(PlayerRespawnEvent event) {
+    nextLife(event.getPlayer());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerQuit(PlayerQuitEvent event) {
+    lives.remove(event.getPlayer().getEntityId());
+  }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective;
+
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.module.life.LifeModule;
+import in.twizmwaz.cardinal.util.IntIntMap;
+import lombok.NonNull;
+import org.bukkit.entity.Player;
+
+/**
+ * The players who have touched an objective, stamped with the life they touched it in. A touch only counts while the
+ * player is still in that life, so nothing has to be removed when they die.
+ */
+public class TouchedPlayers {
+
+  private final IntIntMap touches = new IntIntMap(-1);
+
+  /**
+   * @param player The player.
+   * @return If the player has touched the objective during their current life.
+   */
+  public boolean contains(@NonNull Player player) {
+    return touches.get(player.getEntityId()) == getLife(player);
+  }
+
+  /**
+   * Marks the objective as touched by the player during their current life.
+   *
+   * @param player The player.
+   * @return If the player had not touched the objective yet during this life.
+   */
+  public boolean add(@NonNull Player player) {
+    int life = getLife(player);
+    if (touches.get(player.getEntityId()) == life) {
+      return false;
+    }
+    touches.put(player.getEntityId(), life);
+    return true;
+  }
+
+  private static int getLife(Player player) {
+    return Cardinal.getModule(LifeModule.class).getLife(player);
+  }
+
+}
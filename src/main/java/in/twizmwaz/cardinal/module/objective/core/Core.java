@@ -41,6 +41,7 @@ import in.twizmwaz.cardinal.module.filter.type.modifiers.TransformFilter;
 import in.twizmwaz.cardinal.module.objective.Objective;
 import in.twizmwaz.cardinal.module.objective.OwnedObjective;
 import in.twizmwaz.cardinal.module.objective.ProximityMetric;
+import in.twizmwaz.cardinal.module.objective.TouchedPlayers;
 import in.twizmwaz.cardinal.module.region.Region;
 import in.twizmwaz.cardinal.module.region.type.FiniteBlockRegion;
 import in.twizmwaz.cardinal.module.scoreboard.displayables.EntryHolder;
@@ -52,7 +53,6 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import net.md_5.bungee.api.ChatColor;
 import org.bukkit.Material;
-import org.bukkit.entity.Player;
 
 import java.util.AbstractMap;
 import java.util.List;
@@ -76,7 +76,7 @@ public class Core extends Objective implements OwnedObjective, EntryUpdater {
 
   private final EntryHolder entryHolder = new EntryHolder();
 
-  private final List<Player> touchedPlayers = Lists.newArrayList();
+  private final TouchedPlayers touchedPlayers = new TouchedPlayers();
   private final List<Team> touchedTeams = Lists.newArrayList();
 
   private boolean complete;
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.core;
+
+import lombok.NonNull;
+import org.bukkit.util.Cuboid;
+
+import java.util.List;
+
+/**
+ * The columns lava can leak from each core through, from the core's footprint widened by its leak distance, and the
+ * height lava has to reach in them. Each column belongs to the core whose center is closest, so a flow is checked
+ * against at most one core. Only the columns of each core's own footprint are stored, so cores far apart cost no
+ * more than cores close together.
+ */
+class CoreColumns {
+
+  private final List<Core> cores;
+  private final int[][] footprints;
+  private final boolean[][] owned;
+
+  /**
+   * @param cores The cores of a match.
+   */
+  CoreColumns(@NonNull List<Core> cores) {
+    this(cores, getFootprints(cores));
+  }
+
+  /**
+   * @param cores      The cores of a match.
+   * @param footprints The minimum X, minimum Z, maximum X, maximum Z and leak threshold of each core, in order.
+   */
+  CoreColumns(@NonNull List<Core> cores, @NonNull int[][] footprints) {
+    this.cores = cores;
+    this.footprints = footprints;
+    owned = new boolean[footprints.length][];
+    for (int i = 0; i < footprints.length; i++) {
+      int[] footprint = footprints[i];
+      owned[i] = new boolean[getWidth(footprint) * getDepth(footprint)];
+      for (int x = footprint[0]; x <= footprint[2]; x++) {
+        for (int z = footprint[1]; z <= footprint[3]; z++) {
+          owned[i][getIndex(footprint, x, z)] = getClosest(x, z) == i;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The index of the core whose footprint contains the column and whose center is closest to it, the first
+   *         one on ties, or -1 if no footprint contains it.
+   */
+  private int getClosest(int x, int z) {
+    int closest = -1;
+    double closestDistance = 0;
+    for (int i = 0; i < footprints.length; i++) {
+      int[] footprint = footprints[i];
+      if (!contains(footprint, x, z)) {
+        continue;
+      }
+      double centerX = (footprint[0] + footprint[2]) / 2.0;
+      double centerZ = (footprint[1] + footprint[3]) / 2.0;
+      double distance = (x - centerX) * (x - centerX) + (z - centerZ) * (z - centerZ);
+      if (closest == -1 || distance < closestDistance) {
+        closest = i;
+        closestDistance = distance;
+      }
+    }
+    return closest;
+  }
+
+  private static boolean contains(int[] footprint, int x, int z) {
+    return x >= footprint[0] && x <= footprint[2] && z >= footprint[1] && z <= footprint[3];
+  }
+
+  private static int getWidth(int[] footprint) {
+    return Math.max(footprint[2] - footprint[0] + 1, 0);
+  }
+
+  private static int getDepth(int[] footprint) {
+    return Math.max(footprint[3] - footprint[1] + 1, 0);
+  }
+
+  private static int getIndex(int[] footprint, int x, int z) {
+    return (x - footprint[0]) * getDepth(footprint) + (z - footprint[1]);
+  }
+
+  private static int[][] getFootprints(List<Core> cores) {
+    int[][] footprints = new int[cores.size()][];
+    for (int i = 0; i < cores.size(); i++) {
+      Core core = cores.get(i);
+      Cuboid cuboid = core.getRegion().getBounds().getCuboid();
+      int leak = Math.max(core.getLeak(), 0);
+      footprints[i] = new int[]{cuboid.minimum().getBlockX() - leak, cuboid.minimum().getBlockZ() - leak,
+          (int) Math.ceil(cuboid.maximum().getX()) - 1 + leak, (int) Math.ceil(cuboid.maximum().getZ()) - 1 + leak,
+          cuboid.minimum().getBlockY() - core.getLeak()};
+    }
+    return footprints;
+  }
+
+  /**
+   * @param x The X coordinate lava flowed to.
+   * @param y The Y coordinate lava flowed to.
+   * @param z The Z coordinate lava flowed to.
+   * @return The core the lava leaked from, or null if it has not leaked from any.
+   */
+  Core getLeakedCore(int x, int y, int z) {
+    int index = getLeakedIndex(x, y, z);
+    return index == -1 ? null : cores.get(index);
+  }
+
+  /**
+   * @param x The X coordinate lava flowed to.
+   * @param y The Y coordinate lava flowed to.
+   * @param z The Z coordinate lava flowed to.
+   * @return The index of the core the lava leaked from, or -1 if it has not leaked from any.
+   */
+  int getLeakedIndex(int x, int y, int z) {
+    for (int i = 0; i < footprints.length; i++) {
+      int[] footprint = footprints[i];
+      if (contains(footprint, x, z) && y <= footprint[4] && owned[i][getIndex(footprint, x, z)]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
@@ -25,11 +25,11 @@
 
 package in.twizmwaz.cardinal.module.objective.core;
 
-import ee.ellytr.chat.ChatConstant;
-import ee.ellytr.chat.component.builder.LocalizedComponentBuilder;
-import ee.ellytr.chat.component.formattable.LocalizedComponent;
+import com.google.common.collect.Maps;
 import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.component.team.TeamComponent;
+import in.twizmwaz.cardinal.component.template.TemplateComponent;
+import in.twizmwaz.cardinal.component.template.TemplateComponentBuilder;
 import in.twizmwaz.cardinal.event.objective.ObjectiveCompleteEvent;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.module.AbstractListenerModule;
@@ -40,7 +40,6 @@ import in.twizmwaz.cardinal.module.objective.ProximityMetric;
 import in.twizmwaz.cardinal.module.region.Region;
 import in.twizmwaz.cardinal.module.region.RegionException;
 import in.twizmwaz.cardinal.module.region.RegionModule;
-import in.twizmwaz.cardinal.module.region.type.BlockRegion;
 import in.twizmwaz.cardinal.module.team.Team;
 import in.twizmwaz.cardinal.module.team.TeamModule;
 import in.twizmwaz.cardinal.util.Channels;
@@ -59,18 +58,19 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockFromToEvent;
-import org.bukkit.event.entity.PlayerDeathEvent;
-import org.bukkit.util.Vector;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.located.Located;
 
 import java.util.AbstractMap;
 import java.util.List;
+import java.util.Map;
 
 @ModuleEntry(depends = {IdModule.class, TeamModule.class, RegionModule.class})
 public class CoreModule extends AbstractListenerModule {
 
+  private final Map<Match, CoreColumns> columns = Maps.newHashMap();
+
   @Override
   public boolean loadMatch(Match match) {
     Document document = match.getMap().getDocument();
@@ -179,28 +179,15 @@ public class CoreModule extends AbstractListenerModule {
         IdModule.get().add(match, null, core, true);
       }
     }
+    columns.put(match, new CoreColumns(getCores(match)));
     return true;
   }
 
-  /**
-   * @param vector The vector that this method bases the closest core off of.
-   * @return The core closest to the given vector.
-   */
-  private Core getClosestCore(Match match, Vector vector) {
-    Core closestCore = null;
-    double closestDistance = Double.POSITIVE_INFINITY;
-    for (Core core : IdModule.get().getList(match, Core.class)) {
-      BlockRegion center = core.getRegion().getBounds().getCenterBlock();
-      double distance = vector.distance(center.getVector());
-      if (distance < closestDistance) {
-        closestCore = core;
-        closestDistance = distance;
-      }
-    }
-    return closestCore;
+  @Override
+  public void clearMatch(@NonNull Match match) {
+    columns.remove(match);
   }
 
-
   private List<Core> getCores(@NonNull Match match) {
     return IdModule.get().getList(match, Core.class);
   }
@@ -223,11 +210,10 @@ public class CoreModule extends AbstractListenerModule {
     cores.forEach(core -> {
       if (core.getRegion().contains(block.getLocation())) {
         core.setTouched(team);
-        if (core.isShow() && !core.getTouchedPlayers().contains(player)) {
-          core.getTouchedPlayers().add(player);
+        if (core.isShow() && core.getTouchedPlayers().add(player)) {
           Channels.getTeamChannel(match, team).sendPrefixedMessage(
-              new LocalizedComponent(
-                  ChatConstant.getConstant("objective.core.touched"),
+              new TemplateComponent(
+                  "objective.core.touched",
                   new TeamComponent(core.getOwner()),
                   core.getComponent(),
                   Components.getName(player).build()
@@ -245,46 +231,25 @@ public class CoreModule extends AbstractListenerModule {
    */
   @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
   public void onBlockFromTo(BlockFromToEvent event) {
+    Material type = event.getBlock().getType();
+    if (!type.equals(Material.STATIONARY_LAVA) && !type.equals(Material.LAVA)) {
+      return;
+    }
     Match match = Cardinal.getMatch(event.getWorld());
-    if (match == null) {
+    CoreColumns columns = match == null ? null : this.columns.get(match);
+    if (columns == null) {
       return;
     }
     Block to = event.getToBlock();
-    Material type = event.getBlock().getType();
-    if (type.equals(Material.STATIONARY_LAVA) || type.equals(Material.LAVA)) {
-      Core core = getClosestCore(match, to.getLocation().clone());
-      if (core != null && !core.isComplete()) {
-        int distance = getBottom(core) - to.getY();
-        if (distance >= core.getLeak()) {
-          core.setComplete(true);
-          Channels.getGlobalChannel(Cardinal.getMatchThread(match)).sendMessage(new LocalizedComponentBuilder(
-              ChatConstant.getConstant("objective.core.completed"),
-              new TeamComponent(core.getOwner()),
-              Components.setColor(core.getComponent(), ChatColor.RED)).color(ChatColor.RED).build());
-          Bukkit.getPluginManager().callEvent(new ObjectiveCompleteEvent(core, null));
-        }
-      }
+    Core core = columns.getLeakedCore(to.getX(), to.getY(), to.getZ());
+    if (core != null && !core.isComplete()) {
+      core.setComplete(true);
+      Channels.getGlobalChannel(Cardinal.getMatchThread(match)).sendMessage(new TemplateComponentBuilder(
+          "objective.core.completed",
+          new TeamComponent(core.getOwner()),
+          Components.setColor(core.getComponent(), ChatColor.RED)).color(ChatColor.RED).build());
+      Bukkit.getPluginManager().callEvent(new ObjectiveCompleteEvent(core, null));
     }
   }
 
-  /**
-   * Removes the player from the list of players who have touched the core during their previous life.
-   *
-   * @param event The event.
-   */
-  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-  public void onPlayerDeath(PlayerDeathEvent event) {
-    Player player = event.getEntity();
-    Match match = Cardinal.getMatch(player);
-    List<Core> cores = getCores(match);
-    if (match == null || !match.hasPlayer(player) || cores.size() == 0) {
-      return;
-    }
-    cores.forEach(core -> core.getTouchedPlayers().remove(player));
-  }
-
-  private int getBottom(Core core) {
-    return core.getRegion().getBounds().getCuboid().minimum().getBlockY();
-  }
-
 }
@@ -25,15 +25,17 @@
 
 package in.twizmwaz.cardinal.module.objective.destroyable;
 
+import com.google.common.collect.Lists;
 import ee.ellytr.chat.ChatConstant;
 import ee.ellytr.chat.component.NameComponent;
-import ee.ellytr.chat.component.builder.LocalizedComponentBuilder;
 import ee.ellytr.chat.component.builder.UnlocalizedComponentBuilder;
 import ee.ellytr.chat.component.formattable.ListComponent;
 import ee.ellytr.chat.component.formattable.LocalizedComponent;
 import ee.ellytr.chat.component.formattable.UnlocalizedComponent;
 import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.component.team.TeamComponent;
+import in.twizmwaz.cardinal.component.template.TemplateComponent;
+import in.twizmwaz.cardinal.component.template.TemplateComponentBuilder;
 import in.twizmwaz.cardinal.event.objective.ObjectiveCompleteEvent;
 import in.twizmwaz.cardinal.event.objective.ObjectiveTouchEvent;
 import in.twizmwaz.cardinal.match.Match;
@@ -48,6 +50,7 @@ import in.twizmwaz.cardinal.module.filter.type.modifiers.TransformFilter;
 import in.twizmwaz.cardinal.module.objective.Objective;
 import in.twizmwaz.cardinal.module.objective.OwnedObjective;
 import in.twizmwaz.cardinal.module.objective.ProximityMetric;
+import in.twizmwaz.cardinal.module.objective.TouchedPlayers;
 import in.twizmwaz.cardinal.module.region.Region;
 import in.twizmwaz.cardinal.module.region.type.FiniteBlockRegion;
 import in.twizmwaz.cardinal.module.scoreboard.displayables.EntryHolder;
@@ -59,9 +62,9 @@ import in.twizmwaz.cardinal.util.Characters;
 import in.twizmwaz.cardinal.util.Components;
 import in.twizmwaz.cardinal.util.MaterialPattern;
 import in.twizmwaz.cardinal.util.Numbers;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.Setter;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.chat.BaseComponent;
 import org.bukkit.Bukkit;
@@ -91,13 +94,13 @@ public class Destroyable extends Objective implements OwnedObjective, EntryUpdat
 
   private final EntryHolder entryHolder = new EntryHolder();
 
-  private final List<Player> touchedPlayers = new ArrayList<>();
+  private final TouchedPlayers touchedPlayers = new TouchedPlayers();
   private final List<Team> touchedTeams = new ArrayList<>();
   private final Map<UUID, Integer> playerContributions = new HashMap<>();
 
-  @Setter
-  private int broken;
-  private long total;
+  @Getter(AccessLevel.NONE)
+  private final DestroyableBlocks blocks;
+  private final long total;
 
   private boolean completed;
 
@@ -137,7 +140,8 @@ public class Destroyable extends Objective implements OwnedObjective, EntryUpdat
     this.proximityHorizontal = proximityHorizontal;
 
     this.region = FiniteBlockRegion.getFromMaterialPattern(match, region, materials);
-    total = this.region.getBlocks().size();
+    blocks = new DestroyableBlocks(Lists.newArrayList(this.region.getBlocks()));
+    total = blocks.size();
 
     AppliedModule appliedModule = Cardinal.getModule(AppliedModule.class);
     appliedModule.add(match,
@@ -164,14 +168,56 @@ public class Destroyable extends Objective implements OwnedObjective, EntryUpdat
     }
   }
 
-  public boolean isPartOf(@NonNull Block block) {
-    return region.contains(block.getLocation())
-        && materials.contains(block.getType(), (int) block.getState().getMaterialData().getData());
+  /**
+   * @return The number of pieces that are currently broken.
+   */
+  public int getBroken() {
+    return blocks.getBrokenCount();
   }
 
   /**
-   * Breaks a number of pieces for a certain player. This will automatically show touch messages, and complete the
-   * monument if it reaches completion percentage.
+   * Marks a block of this destroyable as broken.
+   * @param block The block.
+   * @return If the block was a piece that was not broken yet.
+   */
+  public boolean breakPiece(@NonNull Block block) {
+    int index = blocks.indexOf(block);
+    return index >= 0 && blocks.setBroken(index, true);
+  }
+
+  /**
+   * Repairs a broken piece when a player on the owning team places a block of the material it was made of back, if
+   * this destroyable is repairable. Scoreboard entries will be updated.
+   * @param block  The placed block.
+   * @param player The player who placed it.
+   * @return If a piece was repaired.
+   */
+  @SuppressWarnings("deprecation")
+  public boolean repairPiece(@NonNull Block block, @NonNull Player player) {
+    int index = blocks.indexOf(block);
+    if (!repairable || completed || index < 0 || !blocks.isBroken(index) || match.getPlayingContainer(player) != owner
+        || blocks.getState(index) != (block.getTypeId() << 4 | block.getData())) {
+      return false;
+    }
+    blocks.setBroken(index, false);
+    entryHolder.updateEntries();
+    return true;
+  }
+
+  /**
+   * Counts pieces broken without a player, like by explosions that were not set off by one or by pistons, and
+   * completes the monument if it reached its completion percentage.
+   */
+  public void updateProgress() {
+    if (!completed && (double) getBroken() / total >= completion) {
+      complete(null);
+    }
+    entryHolder.updateEntries();
+  }
+
+  /**
+   * Credits a number of pieces broken to a certain player. This will automatically show touch messages, and
+   * complete the monument if it reaches completion percentage.
    * @param player The player that touched.
    * @param contribution The amount of pieces this player broke.
    */
@@ -180,10 +226,9 @@ public class Destroyable extends Objective implements OwnedObjective, EntryUpdat
     if (!isCompleted() && container instanceof Team) {
       Team team = (Team) container;
       setTouched(team);
-      if (show && !touchedPlayers.contains(player)) {
-        touchedPlayers.add(player);
+      if (show && touchedPlayers.add(player)) {
         Channels.getTeamChannel(match, team).sendPrefixedMessage(
-            new LocalizedComponent(ChatConstant.getConstant("objective.destroyable.touched"),
+            new TemplateComponent("objective.destroyable.touched",
                 new TeamComponent(owner),
                 new UnlocalizedComponent(name),
                 new NameComponent(player)
@@ -194,20 +239,8 @@ public class Destroyable extends Objective implements OwnedObjective, EntryUpdat
       UUID uuid = player.getUniqueId();
       playerContributions.putIfAbsent(uuid, 0);
       playerContributions.put(uuid, playerContributions.get(uuid) + contribution);
-      broken += contribution;
-      if ((double) broken / total >= completion) {
-        completed = true;
-
-        Channels.getGlobalChannel(match.getMatchThread()).sendMessage(
-            new LocalizedComponentBuilder(
-                ChatConstant.getConstant("objective.destroyable.completed"),
-                new TeamComponent(owner),
-                new UnlocalizedComponent(name),
-                getContributionList()
-            ).build()
-        );
-
-        Bukkit.getPluginManager().callEvent(new ObjectiveCompleteEvent(this, player));
+      if ((double) getBroken() / total >= completion) {
+        complete(player);
       } else {
         Bukkit.getPluginManager().callEvent(new ObjectiveTouchEvent(this, player));
       }
@@ -215,6 +248,21 @@ public class Destroyable extends Objective implements OwnedObjective, EntryUpdat
     }
   }
 
+  private void complete(Player player) {
+    completed = true;
+
+    Channels.getGlobalChannel(match.getMatchThread()).sendMessage(
+        new TemplateComponentBuilder(
+            "objective.destroyable.completed",
+            new TeamComponent(owner),
+            new UnlocalizedComponent(name),
+            getContributionList()
+        ).build()
+    );
+
+    Bukkit.getPluginManager().callEvent(new ObjectiveCompleteEvent(this, player));
+  }
+
   /**
    * Gets the completion percentage.
    * @return The percentage, always between 0 and 100;
@@ -223,13 +271,15 @@ public class Destroyable extends Objective implements OwnedObjective, EntryUpdat
     if (isCompleted()) {
       return 100;
     }
-    return (int) Numbers.between(Math.floor((double) broken / (total * completion) * 100), 0, 100);
+    return (int) Numbers.between(Math.floor((double) getBroken() / (total * completion) * 100), 0, 100);
   }
 
   private ListComponent getContributionList() {
     List<BaseComponent> contributions = new ArrayList<>();
+    // Repaired pieces stay credited, so shares are of everything players broke
+    int credited = playerContributions.values().stream().mapToInt(Integer::intValue).sum();
     playerContributions.forEach((uuid, amount) -> {
-      long percent = Math.round((double) amount / broken * 100);
+      long percent = Math.round((double) amount / credited * 100);
       contributions.add(new UnlocalizedComponent("{0} ({1}%)",
           Components.getName(Bukkit.getOfflinePlayer(uuid)).build(),
           new UnlocalizedComponentBuilder(percent + "").color(ChatColor.AQUA).build()));
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.destroyable;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.block.Block;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The pieces of a destroyable, indexed by their position in its block region. A grid over the pieces' bounding box
+ * finds a block's piece without searching, and a bit set with a running count keeps which pieces are broken.
+ */
+class DestroyableBlocks {
+
+  @Getter
+  private final List<Block> pieces;
+  private final int minX;
+  private final int minY;
+  private final int minZ;
+  private final int sizeX;
+  private final int sizeY;
+  private final int sizeZ;
+  private final int[] grid;
+  private final int[] states;
+  private final BitSet broken;
+  @Getter
+  private int brokenCount;
+
+  /**
+   * @param pieces The blocks of the destroyable, as they are before the match starts.
+   */
+  @SuppressWarnings("deprecation")
+  DestroyableBlocks(@NonNull List<Block> pieces) {
+    this.pieces = pieces;
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int minZ = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    int maxZ = Integer.MIN_VALUE;
+    for (Block block : pieces) {
+      minX = Math.min(minX, block.getX());
+      minY = Math.min(minY, block.getY());
+      minZ = Math.min(minZ, block.getZ());
+      maxX = Math.max(maxX, block.getX());
+      maxY = Math.max(maxY, block.getY());
+      maxZ = Math.max(maxZ, block.getZ());
+    }
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    sizeX = pieces.isEmpty() ? 0 : maxX - minX + 1;
+    sizeY = pieces.isEmpty() ? 0 : maxY - minY + 1;
+    sizeZ = pieces.isEmpty() ? 0 : maxZ - minZ + 1;
+    grid = new int[sizeX * sizeY * sizeZ];
+    states = new int[pieces.size()];
+    broken = new BitSet(pieces.size());
+    for (int i = 0; i < pieces.size(); i++) {
+      Block block = pieces.get(i);
+      grid[getCell(block.getX(), block.getY(), block.getZ())] = i + 1;
+      states[i] = block.getTypeId() << 4 | block.getData();
+    }
+  }
+
+  /**
+   * @param block The block.
+   * @return The index of the piece at the block's position, or -1 if it is not a piece.
+   */
+  int indexOf(@NonNull Block block) {
+    int cell = getCell(block.getX(), block.getY(), block.getZ());
+    return cell < 0 ? -1 : grid[cell] - 1;
+  }
+
+  int size() {
+    return pieces.size();
+  }
+
+  boolean isBroken(int index) {
+    return broken.get(index);
+  }
+
+  /**
+   * @param index  The piece.
+   * @param broken If the piece is broken.
+   * @return If the piece's state changed.
+   */
+  boolean setBroken(int index, boolean broken) {
+    if (this.broken.get(index) == broken) {
+      return false;
+    }
+    this.broken.set(index, broken);
+    brokenCount += broken ? 1 : -1;
+    return true;
+  }
+
+  /**
+   * @param index The piece.
+   * @return The type id and data the piece is made of, packed as {@code id << 4 | data}.
+   */
+  int getState(int index) {
+    return states[index];
+  }
+
+  private int getCell(int x, int y, int z) {
+    x -= minX;
+    y -= minY;
+    z -= minZ;
+    if (x < 0 || x >= sizeX || y < 0 || y >= sizeY || z < 0 || z >= sizeZ) {
+      return -1;
+    }
+    return (x * sizeY + y) * sizeZ + z;
+  }
+
+}
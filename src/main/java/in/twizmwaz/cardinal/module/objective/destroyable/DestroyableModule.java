@@ -43,16 +43,23 @@ import in.twizmwaz.cardinal.util.Numbers;
 import in.twizmwaz.cardinal.util.ParseUtil;
 import in.twizmwaz.cardinal.util.Strings;
 import lombok.NonNull;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.TNTPrimed;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.located.Located;
 
+import java.util.Collection;
 import java.util.List;
 
 @ModuleEntry(depends = {IdModule.class, TeamModule.class, RegionModule.class, AppliedModule.class})
@@ -197,26 +204,84 @@ public class DestroyableModule extends AbstractListenerModule {
     }
     Block block = event.getBlock();
     destroyables.forEach(destroyable -> {
-      if (destroyable.isPartOf(block)) {
+      if (destroyable.breakPiece(block)) {
         destroyable.addBrokenPiecesFor(player, 1);
       }
     });
   }
 
   /**
-   * Removes the player from the list of players who have touched the monument during their previous life.
+   * Repairs destroyables when a player on the owning team places the material of a broken piece back.
    *
    * @param event The event.
    */
   @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-  public void onPlayerDeath(PlayerDeathEvent event) {
-    Player player = event.getEntity();
-    Match match = Cardinal.getMatch(player);
-    List<Destroyable> destroyables = getDestroyables(match);
-    if (match == null || !match.hasPlayer(player) || destroyables.size() == 0) {
+  public void onBlockPlace(BlockPlaceEvent event) {
+    Match match = Cardinal.getMatch(event.getPlayer());
+    if (match == null || !match.hasPlayer(event.getPlayer())) {
+      return;
+    }
+    for (Destroyable destroyable : getDestroyables(match)) {
+      if (destroyable.repairPiece(event.getBlock(), event.getPlayer())) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Breaks the pieces caught in an explosion, credited to the player who lit the TNT if there is one.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event) {
+    Player player = null;
+    if (event.getEntity() instanceof TNTPrimed && ((TNTPrimed) event.getEntity()).getSource() instanceof Player) {
+      player = (Player) ((TNTPrimed) event.getEntity()).getSource();
+    }
+    breakPieces(event.getLocation().getWorld(), event.blockList(), player);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockExplode(BlockExplodeEvent event) {
+    breakPieces(event.getBlock().getWorld(), event.blockList(), null);
+  }
+
+  /**
+   * Pieces pushed out of place by a piston are broken.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonExtend(BlockPistonExtendEvent event) {
+    breakPieces(event.getBlock().getWorld(), event.getBlocks(), null);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPistonRetract(BlockPistonRetractEvent event) {
+    breakPieces(event.getBlock().getWorld(), event.getBlocks(), null);
+  }
+
+  private void breakPieces(World world, Collection<Block> blocks, Player player) {
+    Match match = Cardinal.getMatch(world);
+    if (match == null || blocks.isEmpty()) {
       return;
     }
-    destroyables.forEach(core -> core.getTouchedPlayers().remove(player));
+    Team team = player != null && match.hasPlayer(player) && match.getPlayingContainer(player) instanceof Team
+        ? (Team) match.getPlayingContainer(player) : null;
+    for (Destroyable destroyable : getDestroyables(match)) {
+      int broken = 0;
+      for (Block block : blocks) {
+        if (destroyable.breakPiece(block)) {
+          broken++;
+        }
+      }
+      if (broken > 0 && team != null && !team.equals(destroyable.getOwner())) {
+        destroyable.addBrokenPiecesFor(player, broken);
+      } else if (broken > 0) {
+        destroyable.updateProgress();
+      }
+    }
   }
 
 }
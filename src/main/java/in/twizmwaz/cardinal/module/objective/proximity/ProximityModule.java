@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.proximity;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.match.Match;
+import in.twizmwaz.cardinal.module.AbstractListenerModule;
+import in.twizmwaz.cardinal.module.ModuleEntry;
+import in.twizmwaz.cardinal.module.objective.Objective;
+import in.twizmwaz.cardinal.module.objective.OwnedObjective;
+import in.twizmwaz.cardinal.module.objective.ProximityMetric;
+import in.twizmwaz.cardinal.module.objective.core.Core;
+import in.twizmwaz.cardinal.module.objective.core.CoreModule;
+import in.twizmwaz.cardinal.module.objective.destroyable.Destroyable;
+import in.twizmwaz.cardinal.module.objective.destroyable.DestroyableModule;
+import in.twizmwaz.cardinal.module.objective.wool.Wool;
+import in.twizmwaz.cardinal.module.objective.wool.WoolModule;
+import in.twizmwaz.cardinal.module.scoreboard.displayables.EntryUpdater;
+import in.twizmwaz.cardinal.module.team.Team;
+import in.twizmwaz.cardinal.module.team.TeamModule;
+import lombok.NonNull;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.util.Vector;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks how close each team has come to the objectives it has to complete. Trackers are grouped by team, so an
+ * event only checks the objectives of the team that caused it, and moves are only checked when a player enters
+ * another block.
+ */
+@ModuleEntry(depends = {TeamModule.class, WoolModule.class, CoreModule.class, DestroyableModule.class})
+public class ProximityModule extends AbstractListenerModule {
+
+  private final Map<Match, Map<Team, List<ProximityTracker>>> trackers = Maps.newHashMap();
+
+  @Override
+  public boolean loadMatch(@NonNull Match match) {
+    Map<Team, List<ProximityTracker>> byTeam = Maps.newHashMap();
+    List<Team> teams = Cardinal.getModule(TeamModule.class).getTeams(match);
+    for (Objective objective : Objective.getObjectives(match)) {
+      if (objective instanceof Wool) {
+        Team team = ((Wool) objective).getTeam();
+        byTeam.computeIfAbsent(team, key -> Lists.newArrayList()).add(new ProximityTracker(objective, team));
+      } else if (objective instanceof Core || objective instanceof Destroyable) {
+        for (Team team : teams) {
+          if (!team.equals(((OwnedObjective) objective).getOwner())) {
+            byTeam.computeIfAbsent(team, key -> Lists.newArrayList()).add(new ProximityTracker(objective, team));
+          }
+        }
+      }
+    }
+    trackers.put(match, byTeam);
+    return true;
+  }
+
+  @Override
+  public void clearMatch(@NonNull Match match) {
+    trackers.remove(match);
+  }
+
+  /**
+   * Gets the proximity shown next to an objective on a scoreboard. Teams only see their own proximity.
+   *
+   * @param objective The objective.
+   * @param team      The team whose proximity is shown.
+   * @param viewer    The viewer's team, null for observers.
+   * @return The proximity, or an empty string if nothing should be shown.
+   */
+  public String getProximity(@NonNull Objective objective, Team team, Team viewer) {
+    if (team == null || viewer != null && !viewer.equals(team)) {
+      return "";
+    }
+    for (ProximityTracker tracker : getTrackers(objective.getMatch(), team)) {
+      if (tracker.getObjective() == objective) {
+        tracker.refresh();
+        return tracker.getDisplay();
+      }
+    }
+    return "";
+  }
+
+  /**
+   * Tracks the closest players have been, checked only when they enter another block.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onPlayerMove(PlayerMoveEvent event) {
+    Location from = event.getFrom();
+    Location to = event.getTo();
+    if (from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY()
+        || from.getBlockZ() != to.getBlockZ()) {
+      offer(event.getPlayer(), ProximityMetric.CLOSEST_PLAYER, to.toVector());
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPlace(BlockPlaceEvent event) {
+    offer(event.getPlayer(), ProximityMetric.CLOSEST_BLOCK,
+        event.getBlock().getLocation().toVector().add(new Vector(0.5, 0.5, 0.5)));
+  }
+
+  /**
+   * Tracks the closest kills, measured where the victim died.
+   *
+   * @param event The event.
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerDeath(PlayerDeathEvent event) {
+    Player killer = event.getEntity().getKiller();
+    if (killer != null && !killer.equals(event.getEntity())) {
+      offer(killer, ProximityMetric.CLOSEST_KILL, event.getEntity().getLocation().toVector());
+    }
+  }
+
+  private void offer(Player player, ProximityMetric metric, Vector position) {
+    Match match = Cardinal.getMatch(player);
+    if (match == null || !match.isRunning() || !match.hasPlayer(player)
+        || !(match.getPlayingContainer(player) instanceof Team)) {
+      return;
+    }
+    for (ProximityTracker tracker : getTrackers(match, (Team) match.getPlayingContainer(player))) {
+      tracker.refresh();
+      if (tracker.uses(metric) && tracker.isActive() && tracker.offer(position)
+          && tracker.getObjective() instanceof EntryUpdater) {
+        ((EntryUpdater) tracker.getObjective()).getEntryHolder().updateEntries();
+      }
+    }
+  }
+
+  private List<ProximityTracker> getTrackers(Match match, Team team) {
+    Map<Team, List<ProximityTracker>> byTeam = trackers.get(match);
+    return byTeam == null ? Collections.emptyList() : byTeam.getOrDefault(team, Collections.emptyList());
+  }
+
+}
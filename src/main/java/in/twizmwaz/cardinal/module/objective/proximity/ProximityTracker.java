@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.proximity;
+
+import in.twizmwaz.cardinal.module.objective.Objective;
+import in.twizmwaz.cardinal.module.objective.ProximityMetric;
+import in.twizmwaz.cardinal.module.objective.ProximityRule;
+import in.twizmwaz.cardinal.module.objective.core.Core;
+import in.twizmwaz.cardinal.module.objective.destroyable.Destroyable;
+import in.twizmwaz.cardinal.module.objective.wool.Wool;
+import in.twizmwaz.cardinal.module.region.Region;
+import in.twizmwaz.cardinal.module.team.Team;
+import lombok.Getter;
+import net.md_5.bungee.api.ChatColor;
+import org.bukkit.util.Cuboid;
+import org.bukkit.util.Vector;
+
+/**
+ * The closest a team has come to an objective. Distances are kept squared, against the bounding box of the
+ * objective's current target, which for wools switches from the wool room to the monument once the wool is touched.
+ */
+class ProximityTracker {
+
+  @Getter
+  private final Objective objective;
+  @Getter
+  private final Team team;
+
+  private boolean monument;
+  private ProximityRule rule;
+  private double minX;
+  private double minY;
+  private double minZ;
+  private double maxX;
+  private double maxY;
+  private double maxZ;
+  private double best = Double.POSITIVE_INFINITY;
+
+  ProximityTracker(Objective objective, Team team) {
+    this.objective = objective;
+    this.team = team;
+    if (objective instanceof Wool) {
+      Wool wool = (Wool) objective;
+      monument = wool.isTouched();
+      if (monument) {
+        setTarget(wool.getMonumentProximityRule(), wool.getMonument());
+      } else if (wool.getLocation() != null) {
+        setTarget(wool.getWoolProximityRule(), Cuboid.between(wool.getLocation(), wool.getLocation()));
+      }
+    } else if (objective instanceof Core) {
+      Core core = (Core) objective;
+      setTarget(new ProximityRule(core.getProximityMetric(), core.isProximityHorizontal()), core.getRegion());
+    } else if (objective instanceof Destroyable) {
+      Destroyable destroyable = (Destroyable) objective;
+      setTarget(new ProximityRule(destroyable.getProximityMetric(), destroyable.isProximityHorizontal()),
+          destroyable.getRegion());
+    }
+  }
+
+  /**
+   * Starts over against the monument once a wool is touched.
+   */
+  void refresh() {
+    if (objective instanceof Wool && !monument && ((Wool) objective).isTouched()) {
+      Wool wool = (Wool) objective;
+      monument = true;
+      setTarget(wool.getMonumentProximityRule(), wool.getMonument());
+    }
+  }
+
+  /**
+   * @return If proximity is still tracked, which stops once the objective is completed, or touched by the team for
+   *     objectives that are not wools.
+   */
+  boolean isActive() {
+    if (rule == null || rule.getMetric() == null) {
+      return false;
+    }
+    if (objective instanceof Wool) {
+      return !((Wool) objective).isComplete();
+    } else if (objective instanceof Core) {
+      return !((Core) objective).isComplete() && !((Core) objective).isTouched(team);
+    } else if (objective instanceof Destroyable) {
+      return !((Destroyable) objective).isCompleted() && !((Destroyable) objective).isTouched(team);
+    }
+    return false;
+  }
+
+  /**
+   * @param metric The metric.
+   * @return If proximity is currently measured with the metric.
+   */
+  boolean uses(ProximityMetric metric) {
+    return rule != null && rule.getMetric() == metric;
+  }
+
+  /**
+   * Records a position reached by the team.
+   *
+   * @param position The position.
+   * @return If the displayed distance changed.
+   */
+  boolean offer(Vector position) {
+    double dx = Math.max(Math.max(minX - position.getX(), position.getX() - maxX), 0);
+    double dy = rule.isHorizontal() ? 0 : Math.max(Math.max(minY - position.getY(), position.getY() - maxY), 0);
+    double dz = Math.max(Math.max(minZ - position.getZ(), position.getZ() - maxZ), 0);
+    double distance = dx * dx + dy * dy + dz * dz;
+    if (distance >= best) {
+      return false;
+    }
+    String old = getDisplay();
+    best = distance;
+    return !old.equals(getDisplay());
+  }
+
+  /**
+   * @return The closest distance rounded to a tenth of a block, or an empty string if there is none.
+   */
+  String getDisplay() {
+    if (!isActive() || best == Double.POSITIVE_INFINITY) {
+      return "";
+    }
+    return ChatColor.GRAY + Double.toString(Math.round(Math.sqrt(best) * 10) / 10.0);
+  }
+
+  private void setTarget(ProximityRule rule, Region region) {
+    if (region != null && region.isBounded() && region.getBounds().getCuboid().isFinite()) {
+      setTarget(rule, region.getBounds().getCuboid());
+    } else {
+      this.rule = null;
+    }
+  }
+
+  private void setTarget(ProximityRule rule, Cuboid cuboid) {
+    this.rule = rule;
+    Vector min = cuboid.minimum();
+    Vector max = cuboid.maximum();
+    minX = min.getX();
+    minY = min.getY();
+    minZ = min.getZ();
+    maxX = max.getX();
+    maxY = max.getY();
+    maxZ = max.getZ();
+    best = Double.POSITIVE_INFINITY;
+  }
+
+}
@@ -30,6 +30,7 @@ import ee.ellytr.chat.component.formattable.UnlocalizedComponent;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.module.objective.Objective;
 import in.twizmwaz.cardinal.module.objective.ProximityRule;
+import in.twizmwaz.cardinal.module.objective.TouchedPlayers;
 import in.twizmwaz.cardinal.module.region.Region;
 import in.twizmwaz.cardinal.module.scoreboard.displayables.EntryHolder;
 import in.twizmwaz.cardinal.module.scoreboard.displayables.EntryUpdater;
@@ -46,9 +47,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.util.Vector;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Wool extends Objective implements Listener, EntryUpdater {
@@ -63,7 +61,7 @@ public class Wool extends Objective implements Listener, EntryUpdater {
 
   private final EntryHolder entryHolder = new EntryHolder();
 
-  private final List<Player> touchedPlayers = new ArrayList<>();
+  private final TouchedPlayers touchedPlayers = new TouchedPlayers();
 
   private boolean touched;
   private boolean complete;
@@ -123,12 +121,8 @@ public class Wool extends Objective implements Listener, EntryUpdater {
     return touchedPlayers.contains(player);
   }
 
-  public void addPlayerTouched(@NonNull Player player) {
-    touchedPlayers.add(player);
-  }
-
-  public void removePlayerTouched(@NonNull Player player) {
-    touchedPlayers.remove(player);
+  public boolean addPlayerTouched(@NonNull Player player) {
+    return touchedPlayers.add(player);
   }
 
   public void setTouched(boolean touched) {
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.wool;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import in.twizmwaz.cardinal.module.region.Region;
+import in.twizmwaz.cardinal.module.team.Team;
+import lombok.NonNull;
+import org.bukkit.DyeColor;
+import org.bukkit.util.Cuboid;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The wools of a match, indexed by the team and color they are picked up by and by the chunk sections their monuments
+ * cover, so a handler only has to look at the wools an event can affect.
+ */
+class WoolIndex {
+
+  private final Map<Team, Map<DyeColor, List<Wool>>> byTeam = Maps.newHashMap();
+  private final Map<Long, List<Wool>> bySection = Maps.newHashMap();
+  private final List<Wool> unbounded = Lists.newArrayList();
+  private final Set<DyeColor> uncraftable = EnumSet.noneOf(DyeColor.class);
+
+  /**
+   * @param wools The wools of a match.
+   */
+  WoolIndex(@NonNull List<Wool> wools) {
+    for (Wool wool : wools) {
+      byTeam.computeIfAbsent(wool.getTeam(), team -> Maps.newEnumMap(DyeColor.class))
+          .computeIfAbsent(wool.getColor(), color -> Lists.newArrayList()).add(wool);
+      if (!wool.isCraftable()) {
+        uncraftable.add(wool.getColor());
+      }
+      Region monument = wool.getMonument();
+      if (!monument.isBounded() || !monument.getBounds().getCuboid().isFinite()) {
+        unbounded.add(wool);
+        continue;
+      }
+      Cuboid cuboid = monument.getBounds().getCuboid();
+      int minX = cuboid.minimum().getBlockX() >> 4;
+      int minY = Math.max(cuboid.minimum().getBlockY(), 0) >> 4;
+      int minZ = cuboid.minimum().getBlockZ() >> 4;
+      int maxX = (int) Math.ceil(cuboid.maximum().getX() - 1) >> 4;
+      int maxY = Math.min((int) Math.ceil(cuboid.maximum().getY() - 1), 255) >> 4;
+      int maxZ = (int) Math.ceil(cuboid.maximum().getZ() - 1) >> 4;
+      for (int x = minX; x <= maxX; x++) {
+        for (int y = minY; y <= maxY; y++) {
+          for (int z = minZ; z <= maxZ; z++) {
+            bySection.computeIfAbsent(getSection(x, y, z), section -> Lists.newArrayList()).add(wool);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @param team  The team picking up the wool.
+   * @param color The color of the wool.
+   * @return The wools of that color the team has to capture.
+   */
+  List<Wool> getWools(Team team, DyeColor color) {
+    Map<DyeColor, List<Wool>> colors = byTeam.get(team);
+    List<Wool> wools = colors == null ? null : colors.get(color);
+    return wools == null ? Collections.emptyList() : wools;
+  }
+
+  /**
+   * @param x The X coordinate of the block.
+   * @param y The Y coordinate of the block.
+   * @param z The Z coordinate of the block.
+   * @return The wools whose monument may contain the block.
+   */
+  List<Wool> getMonumentWools(int x, int y, int z) {
+    List<Wool> wools = bySection.get(getSection(x >> 4, y >> 4, z >> 4));
+    if (unbounded.isEmpty()) {
+      return wools == null ? Collections.emptyList() : wools;
+    } else if (wools == null) {
+      return unbounded;
+    }
+    List<Wool> result = Lists.newArrayList(wools);
+    result.addAll(unbounded);
+    return result;
+  }
+
+  /**
+   * @param color The color of the crafted wool.
+   * @return If a wool of this color may not be crafted.
+   */
+  boolean isUncraftable(DyeColor color) {
+    return uncraftable.contains(color);
+  }
+
+  /**
+   * @param x The X coordinate of the chunk section.
+   * @param y The Y coordinate of the chunk section, from 0 to 15.
+   * @param z The Z coordinate of the chunk section.
+   * @return The section's coordinates packed into one key.
+   */
+  static long getSection(int x, int y, int z) {
+    return ((long) x & 0x3FFFFFFL) << 30 | ((long) z & 0x3FFFFFFL) << 4 | y & 0xF;
+  }
+
+}
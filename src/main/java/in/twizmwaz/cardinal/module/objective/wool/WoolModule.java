@@ -25,10 +25,12 @@
 
 package in.twizmwaz.cardinal.module.objective.wool;
 
+import com.google.common.collect.Maps;
 import ee.ellytr.chat.ChatConstant;
 import ee.ellytr.chat.component.builder.LocalizedComponentBuilder;
 import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.component.team.TeamComponent;
+import in.twizmwaz.cardinal.component.template.TemplateComponentBuilder;
 import in.twizmwaz.cardinal.event.objective.ObjectiveCompleteEvent;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.module.AbstractListenerModule;
@@ -65,7 +67,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockPlaceEvent;
-import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
@@ -76,10 +77,13 @@ import org.jdom2.Element;
 import org.jdom2.located.Located;
 
 import java.util.List;
+import java.util.Map;
 
 @ModuleEntry(depends = {IdModule.class, TeamModule.class, RegionModule.class, AppliedModule.class})
 public class WoolModule extends AbstractListenerModule {
 
+  private final Map<Match, WoolIndex> indexes = Maps.newHashMap();
+
   @Override
   public boolean loadMatch(Match match) {
     Document document = match.getMap().getDocument();
@@ -237,13 +241,30 @@ public class WoolModule extends AbstractListenerModule {
                 ).color(ChatColor.RED).build()), true);
       }
     }
+    indexes.put(match, new WoolIndex(getWools(match)));
     return true;
   }
 
+  @Override
+  public void clearMatch(@NonNull Match match) {
+    indexes.remove(match);
+  }
+
   public List<Wool> getWools(@NonNull Match match) {
     return IdModule.get().getList(match, Wool.class);
   }
 
+  private WoolIndex getIndex(Match match) {
+    return match == null ? null : indexes.get(match);
+  }
+
+  private static Team getTeam(Match match, Player player) {
+    if (!match.hasPlayer(player)) {
+      return null;
+    }
+    CompetitorContainer container = match.getPlayingContainer(player);
+    return container instanceof Team ? (Team) container : null;
+  }
 
   /**
    * Checks if the wool has been picked up when a player clicks on an item in their inventory.
@@ -252,34 +273,11 @@ public class WoolModule extends AbstractListenerModule {
    */
   @EventHandler(ignoreCancelled = true)
   public void onInventoryClick(InventoryClickEvent event) {
-    for (Wool wool : getWools(Cardinal.getMatch(event.getWorld()))) {
-      Player player = event.getActor();
-      ItemStack item = event.getCurrentItem();
-      Team team = wool.getTeam();
-      Match match = Cardinal.getMatch(player);
-      CompetitorContainer container = match.getPlayingContainer(player);
-      if (!wool.isComplete()
-          && item.getType().equals(Material.WOOL)
-          && item.getData().getData() == wool.getColor().getData()
-          && team.equals(container)) {
-        wool.setTouched(true);
-        boolean showMessage = false;
-        if (wool.isShow() && !wool.hasPlayerTouched(player)) {
-          wool.addPlayerTouched(player);
-          showMessage = true;
-
-          Channels.getTeamChannel(match, team).sendPrefixedMessage(
-              new LocalizedComponentBuilder(
-                  ChatConstant.getConstant("objective.wool.touched"),
-                  Components.getName(player).build(),
-                  wool.getComponent(),
-                  new TeamComponent(wool.getTeam())
-              ).build()
-          );
-          //todo: send message to observers
-        }
-      }
+    ItemStack item = event.getCurrentItem();
+    if (item == null || !item.getType().equals(Material.WOOL)) {
+      return;
     }
+    touchWool(event.getActor(), item);
   }
 
   /**
@@ -289,30 +287,39 @@ public class WoolModule extends AbstractListenerModule {
    */
   @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
   public void onPlayerPickupItem(PlayerPickupItemEvent event) {
-    for (Wool wool : getWools(Cardinal.getMatch(event.getWorld()))) {
-      Player player = event.getPlayer();
-      ItemStack item = event.getItem().getItemStack();
-      Team team = wool.getTeam();
-      Match match = Cardinal.getMatch(player);
-      CompetitorContainer container = match.getPlayingContainer(player);
-      if (!wool.isComplete()
-          && item.getType().equals(Material.WOOL)
-          && item.getData().getData() == wool.getColor().getData()
-          && team.equals(container)) {
-        wool.setTouched(true);
-        if (wool.isShow() && !wool.hasPlayerTouched(player)) {
-          wool.addPlayerTouched(player);
+    ItemStack item = event.getItem().getItemStack();
+    if (!item.getType().equals(Material.WOOL)) {
+      return;
+    }
+    touchWool(event.getPlayer(), item);
+  }
 
-          Channels.getTeamChannel(match, team).sendPrefixedMessage(
-              new LocalizedComponentBuilder(
-                  ChatConstant.getConstant("objective.wool.touched"),
-                  Components.getName(player).build(),
-                  wool.getComponent(),
-                  new TeamComponent(wool.getTeam())
-              ).build()
-          );
-          //todo: send message to observers
-        }
+  private void touchWool(Player player, ItemStack item) {
+    Match match = Cardinal.getMatch(player);
+    WoolIndex index = getIndex(match);
+    if (index == null) {
+      return;
+    }
+    Team team = getTeam(match, player);
+    if (team == null) {
+      return;
+    }
+    for (Wool wool : index.getWools(team, DyeColor.getByWoolData(item.getData().getData()))) {
+      if (wool.isComplete()) {
+        continue;
+      }
+      wool.setTouched(true);
+      if (wool.isShow() && wool.addPlayerTouched(player)) {
+
+        Channels.getTeamChannel(match, team).sendPrefixedMessage(
+            new TemplateComponentBuilder(
+                "objective.wool.touched",
+                Components.getName(player).build(),
+                wool.getComponent(),
+                new TeamComponent(wool.getTeam())
+            ).build()
+        );
+        //todo: send message to observers
       }
     }
   }
@@ -324,28 +331,42 @@ public class WoolModule extends AbstractListenerModule {
    */
   @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
   public void onBlockPlace(BlockPlaceEvent event) {
-    for (Wool wool : getWools(Cardinal.getMatch(event.getWorld()))) {
-      if (wool.isComplete()) {
+    Block block = event.getBlock();
+    if (!block.getType().equals(Material.WOOL)) {
+      return;
+    }
+    Match match = Cardinal.getMatch(event.getWorld());
+    WoolIndex index = getIndex(match);
+    if (index == null) {
+      return;
+    }
+    Player player = event.getPlayer();
+    DyeColor color = DyeColor.getByWoolData(block.getData());
+    Vector position = null;
+    Team team = null;
+    for (Wool wool : index.getMonumentWools(block.getX(), block.getY(), block.getZ())) {
+      if (wool.isComplete() || !wool.getColor().equals(color)) {
+        continue;
+      }
+      if (position == null) {
+        position = block.getLocation().toVector();
+      }
+      if (!wool.getMonument().contains(position)) {
         continue;
       }
-      Player player = event.getPlayer();
-      Block block = event.getBlock();
-      if (wool.getMonument().contains(block.getLocation().toVector()) && block.getType().equals(Material.WOOL)
-          && ((org.bukkit.material.Wool) block.getState().getMaterialData()).getColor().equals(wool.getColor())) {
-        wool.setComplete(true);
+      wool.setComplete(true);
 
-        if (wool.isShow()) {
-          //fixme: unchecked cast
-          Match match = Cardinal.getMatch(event.getWorld());
-          Team team = (Team) match.getPlayingContainer(player);
-          Channels.getGlobalChannel(match.getMatchThread()).sendMessage(
-              new LocalizedComponentBuilder(ChatConstant.getConstant("objective.wool.completed"),
-                  Components.getName(player).build(),
-                  wool.getComponent(),
-                  new TeamComponent(team)).color(ChatColor.GRAY).build());
+      if (wool.isShow()) {
+        if (team == null) {
+          team = getTeam(match, player);
         }
-        Bukkit.getPluginManager().callEvent(new ObjectiveCompleteEvent(wool, player));
+        Channels.getGlobalChannel(match.getMatchThread()).sendMessage(
+            new TemplateComponentBuilder("objective.wool.completed",
+                Components.getName(player).build(),
+                wool.getComponent(),
+                new TeamComponent(team == null ? wool.getTeam() : team)).color(ChatColor.GRAY).build());
       }
+      Bukkit.getPluginManager().callEvent(new ObjectiveCompleteEvent(wool, player));
     }
   }
 
@@ -356,24 +377,13 @@ public class WoolModule extends AbstractListenerModule {
    */
   @EventHandler(ignoreCancelled = true)
   public void onCraftItem(CraftItemEvent event) {
-    for (Wool wool : getWools(Cardinal.getMatch(event.getWorld()))) {
-      if (event.getRecipe().getResult().equals(new ItemStack(Material.WOOL, 1, wool.getColor().getData()))
-          && !wool.isCraftable()) {
-        event.setCancelled(true);
-        break;
-      }
+    ItemStack result = event.getRecipe().getResult();
+    if (!result.getType().equals(Material.WOOL) || result.getAmount() != 1 || result.hasItemMeta()) {
+      return;
     }
-  }
-
-  /**
-   * Removes the player from the list of players who have touched the wool during their previous life.
-   *
-   * @param event The event.
-   */
-  @EventHandler
-  public void onPlayerDeath(PlayerDeathEvent event) {
-    for (Wool wool : getWools(Cardinal.getMatch(event.getWorld()))) {
-      wool.removePlayerTouched(event.getEntity());
+    WoolIndex index = getIndex(Cardinal.getMatch(event.getWorld()));
+    if (index != null && index.isUncraftable(DyeColor.getByWoolData((byte) result.getDurability()))) {
+      event.setCancelled(true);
     }
   }
 
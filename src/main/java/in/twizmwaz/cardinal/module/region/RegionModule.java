@@ -26,6 +26,7 @@
 package in.twizmwaz.cardinal.module.region;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.module.AbstractModule;
 import in.twizmwaz.cardinal.module.ModuleEntry;
@@ -87,6 +88,8 @@ public class RegionModule extends AbstractModule {
   public static final Region EVERYWHERE = new EverywhereRegion(null);
   public static final Region NOWHERE = new NowhereRegion(null);
 
+  private final Map<Match, List<Region>> parsed = Maps.newHashMap();
+
   @Override
   public boolean loadMatch(@NonNull Match match) {
     IdModule.get().add(match, "everywhere", new EverywhereRegion(match));
@@ -109,6 +112,21 @@ public class RegionModule extends AbstractModule {
     return true;
   }
 
+  @Override
+  public void clearMatch(@NonNull Match match) {
+    parsed.remove(match);
+  }
+
+  /**
+   * @param match The match.
+   * @return Every region parsed for the match, including unnamed regions and regions defined inside other modules'
+   *         elements.
+   */
+  public List<Region> getRegions(@NonNull Match match) {
+    List<Region> regions = parsed.get(match);
+    return regions != null ? regions : Lists.newArrayList();
+  }
+
   /**
    * @param id The ID of the region that is returned.
    * @return The region that has the given ID.
@@ -126,6 +144,14 @@ public class RegionModule extends AbstractModule {
    * @throws RegionAttributeException Thrown if there are missing or invalid attributes for a region.
    */
   public Region getRegion(Match match, Element element, String... alternateAttributes) throws RegionException {
+    Region region = parseRegion(match, element, alternateAttributes);
+    if (region != null && match != null) {
+      parsed.computeIfAbsent(match, key -> Lists.newArrayList()).add(region);
+    }
+    return region;
+  }
+
+  private Region parseRegion(Match match, Element element, String... alternateAttributes) throws RegionException {
     List<String> attributes = Lists.newArrayList(alternateAttributes);
     attributes.add("id");
     attributes.add("name");
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.repository;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import in.twizmwaz.cardinal.util.document.MapElement;
+import in.twizmwaz.cardinal.util.document.MapElementCodec;
+import lombok.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes compiled maps, binary artifacts holding a map's document with every include already resolved.
+ *
+ * <p>The header holds the format version, a SHA-1 hash of every source file, and each source's path relative to the
+ * map directory with the modification time and size it had when it was hashed. The sources include the paths an
+ * include was looked up at but not found, so an include added later that would shadow the resolved one makes the
+ * artifact stale. While every source keeps its stamp the artifact is current without reading the sources, the same
+ * check the {@link RepositoryIndex} makes. Only when a stamp differs, for example after the repository was copied, are
+ * the sources hashed again. Anything unreadable or stale falls back to parsing the XML.
+ */
+final class CompiledMaps {
+
+  static final String FILE_NAME = "map.cmap";
+
+  private static final int MAGIC = 0x434d4150;
+  private static final int VERSION = 4;
+  private static final int ABSENT = -1;
+
+  private final File cacheDirectory;
+
+  /**
+   * @param cacheDirectory The directory artifacts are written to when they can not be found next to the map.xml, or
+   *                       null to only use artifacts next to the map.xml.
+   */
+  CompiledMaps(File cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * Reads the artifact next to the map.xml or in the cache directory, whichever is current.
+   *
+   * @param map   The map directory.
+   * @param files The list the sources of the artifact are added to if one is used.
+   * @return The root element, or null if there is no current artifact.
+   */
+  MapElement read(@NonNull File map, @NonNull List<File> files) {
+    for (File artifact : Arrays.asList(new File(map, FILE_NAME), getCacheFile(map))) {
+      if (artifact == null || !artifact.isFile()) {
+        continue;
+      }
+      try {
+        MapElement root = read(artifact, map, files);
+        if (root != null) {
+          return root;
+        }
+      } catch (IOException ex) {
+        // Corrupt or from an older build, the map is parsed from XML instead
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Writes an artifact to the cache directory, if there is one.
+   *
+   * @param map     The map directory.
+   * @param root    The resolved root element.
+   * @param sources The map.xml and every include it resolved.
+   */
+  void writeCache(@NonNull File map, @NonNull MapElement root, @NonNull List<File> sources) throws IOException {
+    File artifact = getCacheFile(map);
+    if (artifact != null) {
+      write(artifact, map, root, sources);
+    }
+  }
+
+  /**
+   * @param artifact The file to write to.
+   * @param map      The map directory.
+   * @param root     The resolved root element.
+   * @param sources  The map.xml and every include it resolved.
+   */
+  void write(@NonNull File artifact, @NonNull File map, @NonNull MapElement root, @NonNull List<File> sources)
+      throws IOException {
+    List<File> unique = Lists.newArrayList();
+    sources.forEach(source -> {
+      if (!unique.contains(source.getAbsoluteFile())) {
+        unique.add(source.getAbsoluteFile());
+      }
+    });
+    artifact.getParentFile().mkdirs();
+    // Unique per writer, since maps can be compiled by several threads at once
+    Path temp = java.nio.file.Files.createTempFile(artifact.getParentFile().toPath(), artifact.getName(), ".tmp");
+    try {
+      try (DataOutputStream out =
+               new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp.toFile())))) {
+        // Stamped before hashing, so a source changed while it is hashed no longer matches its stamp
+        List<RepositoryIndex.FileStamp> stamps = Lists.newArrayList();
+        unique.forEach(source -> stamps.add(RepositoryIndex.FileStamp.of(source)));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.write(hash(unique));
+        out.writeInt(unique.size());
+        for (int i = 0; i < unique.size(); i++) {
+          writeString(out, map.getAbsoluteFile().toPath().normalize().relativize(unique.get(i).toPath().normalize())
+              .toString().replace(File.separatorChar, '/'));
+          out.writeLong(stamps.get(i).getModified());
+          out.writeLong(stamps.get(i).getSize());
+        }
+        MapElementCodec.write(root, out);
+      }
+      java.nio.file.Files.move(temp, artifact.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      java.nio.file.Files.deleteIfExists(temp);
+    }
+  }
+
+  private MapElement read(File artifact, File map, List<File> files) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(artifact, "r")) {
+      MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        return null;
+      }
+      byte[] hash = new byte[Hashing.sha1().bits() / Byte.SIZE];
+      buffer.get(hash);
+      int count = buffer.getInt();
+      List<File> sources = Lists.newArrayList();
+      boolean unchanged = true;
+      for (int i = 0; i < count; i++) {
+        File source = new File(map.getAbsoluteFile(), readString(buffer)).getCanonicalFile();
+        sources.add(source);
+        unchanged &= new RepositoryIndex.FileStamp(source.getPath(), buffer.getLong(), buffer.getLong()).matches();
+      }
+      if (!unchanged && !Arrays.equals(hash, hash(sources))) {
+        return null;
+      }
+      MapElement root = MapElementCodec.read(buffer);
+      files.addAll(sources);
+      return root;
+    } catch (BufferUnderflowException ex) {
+      throw new IOException("Truncated compiled map " + artifact, ex);
+    }
+  }
+
+  private File getCacheFile(File map) {
+    if (cacheDirectory == null) {
+      return null;
+    }
+    String name = Hashing.sha1().hashString(map.getAbsolutePath(), Charsets.UTF_8).toString();
+    return new File(cacheDirectory, name + ".cmap");
+  }
+
+  private static byte[] hash(List<File> sources) throws IOException {
+    Hasher hasher = Hashing.sha1().newHasher();
+    for (File source : sources) {
+      if (!source.isFile()) {
+        hasher.putInt(ABSENT);
+        continue;
+      }
+      byte[] content = Files.toByteArray(source);
+      hasher.putInt(content.length);
+      hasher.putBytes(content);
+    }
+    return hasher.hash().asBytes();
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(Charsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) throws IOException {
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IOException("Invalid string length " + length);
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, Charsets.UTF_8);
+  }
+
+}
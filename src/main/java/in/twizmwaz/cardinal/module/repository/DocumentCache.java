@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.repository;
+
+import in.twizmwaz.cardinal.util.document.MapElement;
+import lombok.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * A least recently used cache of parsed map documents, holding at most a fixed number of them. A document that is being
+ * loaded counts towards the size, and requesting it waits for that load instead of starting another one.
+ */
+class DocumentCache {
+
+  private final int size;
+  private final Function<LoadedMap, MapElement> loader;
+  private final Map<LoadedMap, CompletableFuture<MapElement>> documents;
+
+  /**
+   * @param size   The maximum number of documents to hold.
+   * @param loader The function used to parse a map's document.
+   */
+  DocumentCache(int size, @NonNull Function<LoadedMap, MapElement> loader) {
+    this.size = Math.max(1, size);
+    this.loader = loader;
+    this.documents = new LinkedHashMap<LoadedMap, CompletableFuture<MapElement>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<LoadedMap, CompletableFuture<MapElement>> eldest) {
+        return size() > DocumentCache.this.size;
+      }
+    };
+  }
+
+  /**
+   * Gets a document, loading it on the calling thread if it is not cached or already loading.
+   *
+   * @param map The map.
+   * @return The root element of the map's document.
+   */
+  MapElement get(@NonNull LoadedMap map) {
+    CompletableFuture<MapElement> future;
+    boolean load = false;
+    synchronized (documents) {
+      future = documents.get(map);
+      if (future == null) {
+        future = new CompletableFuture<>();
+        documents.put(map, future);
+        load = true;
+      }
+    }
+    if (load) {
+      load(map, future);
+    }
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      throw new IllegalStateException("Could not load the document for " + map.getName(), ex.getCause());
+    }
+  }
+
+  /**
+   * Starts loading a document if it is not cached or already loading.
+   *
+   * @param map      The map.
+   * @param executor The executor to load the document on.
+   */
+  void prefetch(@NonNull LoadedMap map, @NonNull Executor executor) {
+    CompletableFuture<MapElement> future;
+    synchronized (documents) {
+      if (documents.containsKey(map)) {
+        return;
+      }
+      future = new CompletableFuture<>();
+      documents.put(map, future);
+    }
+    executor.execute(() -> load(map, future));
+  }
+
+  /**
+   * Drops a document from the cache, such as the document of a map that was replaced by a reload.
+   *
+   * @param map The map.
+   */
+  void invalidate(@NonNull LoadedMap map) {
+    synchronized (documents) {
+      documents.remove(map);
+    }
+  }
+
+  private void load(LoadedMap map, CompletableFuture<MapElement> future) {
+    try {
+      future.complete(loader.apply(map));
+    } catch (Throwable ex) {
+      synchronized (documents) {
+        documents.remove(map, future);
+      }
+      // Threads waiting on the future would never return otherwise
+      future.completeExceptionally(ex);
+      if (ex instanceof Error) {
+        throw (Error) ex;
+      }
+    }
+  }
+
+}
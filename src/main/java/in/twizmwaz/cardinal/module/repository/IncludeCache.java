@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.repository;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import in.twizmwaz.cardinal.util.document.MapElement;
+import in.twizmwaz.cardinal.util.document.MapElementParser;
+import in.twizmwaz.cardinal.util.document.MapElementParser.IncludeResolver;
+import lombok.Data;
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parsed include files, shared by every map that includes them. Each file is cached with its own nested includes
+ * already resolved, keyed by canonical path, and is parsed again once it or any file it includes changes on disk.
+ * Cached elements are immutable, so they are shared between maps without copying.
+ */
+class IncludeCache {
+
+  private final Map<String, Include> includes = Maps.newConcurrentMap();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Parses a file, replacing every include element in it with the content of the included file.
+   *
+   * @param source    The file to parse.
+   * @param directory The directory include paths are first resolved against.
+   * @param repo      The repository root, include paths are resolved against it if not found in the directory.
+   * @param files     The list every resolved include file, and every path an include was not found at, is added to.
+   * @return The root element.
+   */
+  MapElement parse(@NonNull File source, @NonNull File directory, @NonNull File repo, @NonNull List<File> files)
+      throws IOException, XMLStreamException {
+    Deque<String> stack = new ArrayDeque<>();
+    stack.push(source.getCanonicalPath());
+    return parse(source, directory, repo, files, stack);
+  }
+
+  /**
+   * Parses a stream, replacing every include element in it with the content of the included file.
+   *
+   * @param in        The stream to parse.
+   * @param systemId  The location of the stream.
+   * @param directory The directory include paths are first resolved against.
+   * @param repo      The repository root, include paths are resolved against it if not found in the directory.
+   * @param files     The list every resolved include file, and every path an include was not found at, is added to.
+   * @return The root element.
+   */
+  MapElement parse(@NonNull InputStream in, @NonNull String systemId, @NonNull File directory, @NonNull File repo,
+                   @NonNull List<File> files) throws IOException, XMLStreamException {
+    Deque<String> stack = new ArrayDeque<>();
+    stack.push(systemId);
+    return new MapElementParser(getResolver(directory, repo, files, stack)).parse(in, systemId);
+  }
+
+  long getHits() {
+    return hits.get();
+  }
+
+  long getMisses() {
+    return misses.get();
+  }
+
+  private MapElement parse(File source, File directory, File repo, List<File> files, Deque<String> stack)
+      throws IOException, XMLStreamException {
+    return new MapElementParser(getResolver(directory, repo, files, stack)).parse(source);
+  }
+
+  private IncludeResolver getResolver(File directory, File repo, List<File> files, Deque<String> stack) {
+    return includeElement -> {
+      String src = includeElement.getAttributeValue("src");
+      File include = new File(directory, src);
+      if (!include.exists()) {
+        // Recorded as a source, so creating it later invalidates everything resolved from the repository root
+        files.add(include);
+        include = new File(repo, src);
+      }
+      Include cached = getInclude(include, repo, stack);
+      cached.getFiles().forEach(stamp -> files.add(new File(stamp.getPath())));
+      return cached.getContent();
+    };
+  }
+
+  private Include getInclude(File file, File repo, Deque<String> stack) throws IOException, XMLStreamException {
+    String path = file.getCanonicalPath();
+    if (stack.contains(path)) {
+      StringBuilder cycle = new StringBuilder();
+      Iterator<String> iterator = stack.descendingIterator();
+      while (iterator.hasNext()) {
+        cycle.append(iterator.next()).append(" -> ");
+      }
+      throw new XMLStreamException("Include cycle: " + cycle + path);
+    }
+    Include cached = includes.get(path);
+    if (cached != null && cached.isCurrent()) {
+      hits.incrementAndGet();
+      return cached;
+    }
+    misses.incrementAndGet();
+    List<File> files = Lists.newArrayList(file);
+    MapElement root;
+    stack.push(path);
+    try {
+      root = parse(file, file.getParentFile(), repo, files, stack);
+    } finally {
+      stack.pop();
+    }
+    List<RepositoryIndex.FileStamp> stamps = Lists.newArrayList();
+    files.forEach(included -> stamps.add(RepositoryIndex.FileStamp.of(included)));
+    Include include = new Include(root.getChildren(), ImmutableList.copyOf(stamps));
+    includes.put(path, include);
+    return include;
+  }
+
+  @Data
+  private static final class Include {
+
+    private final List<MapElement> content;
+    private final List<RepositoryIndex.FileStamp> files;
+
+    private boolean isCurrent() {
+      for (RepositoryIndex.FileStamp stamp : files) {
+        if (!stamp.matches()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+  }
+
+}
@@ -25,23 +25,31 @@
 
 package in.twizmwaz.cardinal.module.repository;
 
+import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.module.contributor.Contributor;
 import in.twizmwaz.cardinal.util.Proto;
+import in.twizmwaz.cardinal.util.document.MapElement;
 import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import org.jdom2.Document;
 
 import java.io.File;
 import java.util.Map;
 
-@Data
+/**
+ * A map in a repository. Each load of a map is a distinct instance, so anything cached for a map is dropped with it
+ * when the map is reloaded.
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
 public class LoadedMap {
 
   private final File directory;
 
-  private final Document document;
   private final Proto proto;
 
   private final String name;
@@ -52,6 +60,23 @@ public class LoadedMap {
   private final Map<Contributor, String> contributors;
   private final int maxPlayers;
 
+  /**
+   * Documents are not kept with the map, they are held by a bounded cache in the {@link RepositoryModule} and parsed
+   * again when needed after being evicted.
+   *
+   * @return The root element of the map's document, with includes resolved.
+   */
+  public MapElement getRootElement() {
+    return Cardinal.getModule(RepositoryModule.class).getRootElement(this);
+  }
+
+  /**
+   * @return A located JDOM copy of the map's document, for modules that still use JDOM.
+   */
+  public Document getDocument() {
+    return Cardinal.getModule(RepositoryModule.class).getDocument(this);
+  }
+
   @AllArgsConstructor
   @Getter
   public enum Edition {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.repository;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Maps packaged as zip archives. An archive holds the usual map.xml, level.dat and region directory, either at its
+ * root or inside a single top level directory.
+ */
+public final class MapArchives {
+
+  private static final String EXTENSION = ".zip";
+
+  private MapArchives() {
+  }
+
+  /**
+   * @param file The file.
+   * @return If the file could be a map archive, judging by its name.
+   */
+  public static boolean isArchive(@NonNull File file) {
+    return file.getName().toLowerCase().endsWith(EXTENSION) && file.isFile();
+  }
+
+  /**
+   * @param archive The archive.
+   * @return If the archive contains a map.
+   */
+  static boolean isMap(@NonNull File archive) {
+    try (ZipFile zip = new ZipFile(archive)) {
+      return getRoot(zip) != null;
+    } catch (IOException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Finds the directory of an archive that holds the map, the shallowest one with a map.xml, level.dat and region
+   * directory.
+   *
+   * @param zip The archive.
+   * @return The entry name prefix of the map's files, or null if the archive contains no map.
+   */
+  public static String getRoot(@NonNull ZipFile zip) {
+    String root = null;
+    Enumeration<? extends ZipEntry> entries = zip.entries();
+    while (entries.hasMoreElements()) {
+      String name = entries.nextElement().getName();
+      if (!name.equals("map.xml") && !name.endsWith("/map.xml")) {
+        continue;
+      }
+      String prefix = name.substring(0, name.length() - "map.xml".length());
+      if ((root == null || prefix.length() < root.length()) && zip.getEntry(prefix + "level.dat") != null
+          && hasDirectory(zip, prefix + "region/")) {
+        root = prefix;
+      }
+    }
+    return root;
+  }
+
+  /**
+   * @param zip The archive.
+   * @return The map.xml entry of the archive.
+   * @throws IOException If the archive contains no map.
+   */
+  static ZipEntry getMapEntry(@NonNull ZipFile zip) throws IOException {
+    String root = getRoot(zip);
+    if (root == null) {
+      throw new IOException("No map found in " + zip.getName());
+    }
+    return zip.getEntry(root + "map.xml");
+  }
+
+  private static boolean hasDirectory(ZipFile zip, String directory) {
+    if (zip.getEntry(directory) != null) {
+      return true;
+    }
+    // Archivers may leave out entries for directories
+    Enumeration<? extends ZipEntry> entries = zip.entries();
+    while (entries.hasMoreElements()) {
+      if (entries.nextElement().getName().startsWith(directory)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.repository;
+
+import com.google.common.collect.Lists;
+import in.twizmwaz.cardinal.util.document.MapElement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Compiles every map in a repository ahead of time, writing a {@value CompiledMaps#FILE_NAME} next to each map.xml.
+ * This runs outside the server, with the plugin jar and a server jar (for Guava) on the classpath:
+ *
+ * <p>{@code java -cp Cardinal.jar:server.jar in.twizmwaz.cardinal.module.repository.MapCompiler <repository>}
+ */
+public final class MapCompiler {
+
+  private MapCompiler() {
+  }
+
+  /**
+   * @param args The repository directory.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: MapCompiler <repository>");
+      System.exit(1);
+    }
+    File repo = new File(args[0]).getAbsoluteFile();
+    List<Path> maps;
+    try (Stream<Path> paths = Files.walk(repo.toPath())) {
+      maps = paths.filter(path -> path.getFileName().toString().equals("map.xml")).collect(Collectors.toList());
+    }
+    IncludeCache includes = new IncludeCache();
+    CompiledMaps compiledMaps = new CompiledMaps(null);
+    int compiled = 0;
+    long start = System.nanoTime();
+    for (Path path : maps) {
+      File mapFile = path.toFile();
+      File map = mapFile.getParentFile();
+      try {
+        List<File> files = Lists.newArrayList(mapFile);
+        MapElement root = includes.parse(mapFile, map.getParentFile(), repo, files);
+        compiledMaps.write(new File(map, CompiledMaps.FILE_NAME), map, root, files);
+        compiled++;
+      } catch (IOException | XMLStreamException | RuntimeException ex) {
+        System.err.println("Could not compile " + map + ": " + ex.getMessage());
+      }
+    }
+    System.out.println("Compiled " + compiled + "/" + maps.size() + " maps in "
+        + (System.nanoTime() - start) / 1000000 + "ms");
+    if (compiled != maps.size()) {
+      System.exit(1);
+    }
+  }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.repository;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.util.Proto;
+import lombok.Data;
+import lombok.NonNull;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A record of map metadata stored between restarts. An entry is only trusted while the map.xml and every include it
+ * resolved still have the same modification time and size.
+ */
+class RepositoryIndex {
+
+  private static final int VERSION = 1;
+
+  private final File file;
+  private final Map<String, Entry> entries = Maps.newConcurrentMap();
+
+  /**
+   * Creates an index backed by a file, reading any entries already stored in it.
+   *
+   * @param file The file the index is stored in.
+   */
+  RepositoryIndex(@NonNull File file) {
+    this.file = file;
+    if (!file.exists()) {
+      return;
+    }
+    YamlConfiguration config = new YamlConfiguration();
+    try {
+      config.load(file);
+    } catch (IOException | InvalidConfigurationException ex) {
+      Cardinal.getPluginLogger().warning("Could not read map index " + file + ", maps will be parsed again");
+      return;
+    }
+    if (config.getInt("version") != VERSION) {
+      return;
+    }
+    for (Map<?, ?> raw : config.getMapList("maps")) {
+      try {
+        Entry entry = Entry.deserialize(raw);
+        entries.put(entry.getDirectory(), entry);
+      } catch (ClassCastException | IllegalArgumentException | NullPointerException ex) {
+        // A broken entry only means that map is parsed again
+      }
+    }
+  }
+
+  /**
+   * @param directory The map directory.
+   * @return The stored entry, or null if there is none or any of its files changed.
+   */
+  Entry get(@NonNull File directory) {
+    Entry entry = entries.get(directory.getAbsolutePath());
+    if (entry == null) {
+      return null;
+    }
+    for (FileStamp stamp : entry.getFiles()) {
+      if (!stamp.matches()) {
+        return null;
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Stores the metadata of a freshly parsed map.
+   *
+   * @param map   The map.
+   * @param files The map.xml and the include files it resolved.
+   */
+  void put(@NonNull LoadedMap map, @NonNull Collection<File> files) {
+    List<FileStamp> stamps = Lists.newArrayList();
+    files.forEach(file -> stamps.add(FileStamp.of(file)));
+    Proto proto = map.getProto();
+    entries.put(map.getDirectory().getAbsolutePath(), new Entry(map.getDirectory().getAbsolutePath(), stamps,
+        proto.getMajor() + "." + proto.getMinor() + "." + proto.getPatch(), map.getName(), map.getGamemode(),
+        map.getEdition().name(), map.getObjective(), map.getMaxPlayers()));
+  }
+
+  /**
+   * Removes entries in a repository for directories that are no longer maps.
+   *
+   * @param repo        The repository root.
+   * @param directories The map directories still present in the repository.
+   */
+  void retain(@NonNull File repo, @NonNull Collection<File> directories) {
+    String root = repo.getAbsolutePath();
+    Set<String> paths = Sets.newHashSet();
+    directories.forEach(directory -> paths.add(directory.getAbsolutePath()));
+    entries.keySet().removeIf(path -> path.startsWith(root) && !paths.contains(path));
+  }
+
+  /**
+   * Writes the index to its file.
+   */
+  void save() {
+    YamlConfiguration config = new YamlConfiguration();
+    config.set("version", VERSION);
+    List<Map<String, Object>> maps = Lists.newArrayList();
+    entries.values().forEach(entry -> maps.add(entry.serialize()));
+    config.set("maps", maps);
+    try {
+      config.save(file);
+    } catch (IOException ex) {
+      Cardinal.getPluginLogger().warning("Could not save map index to " + file);
+    }
+  }
+
+  @Data
+  static final class Entry {
+
+    private final String directory;
+    private final List<FileStamp> files;
+    private final String proto;
+    private final String name;
+    private final String gamemode;
+    private final String edition;
+    private final String objective;
+    private final int maxPlayers;
+
+    Proto getParsedProto() {
+      return Proto.parseProto(proto);
+    }
+
+    LoadedMap.Edition getParsedEdition() {
+      return LoadedMap.Edition.valueOf(edition);
+    }
+
+    private Map<String, Object> serialize() {
+      Map<String, Object> result = Maps.newLinkedHashMap();
+      result.put("directory", directory);
+      List<Map<String, Object>> rawFiles = Lists.newArrayList();
+      files.forEach(file -> rawFiles.add(file.serialize()));
+      result.put("files", rawFiles);
+      result.put("proto", proto);
+      result.put("name", name);
+      result.put("gamemode", gamemode);
+      result.put("edition", edition);
+      result.put("objective", objective);
+      result.put("maxPlayers", maxPlayers);
+      return result;
+    }
+
+    private static Entry deserialize(Map<?, ?> raw) {
+      List<FileStamp> files = Lists.newArrayList();
+      for (Object file : (List<?>) raw.get("files")) {
+        files.add(FileStamp.deserialize((Map<?, ?>) file));
+      }
+      Entry entry = new Entry((String) raw.get("directory"), files, (String) raw.get("proto"),
+          (String) raw.get("name"), (String) raw.get("gamemode"), (String) raw.get("edition"),
+          (String) raw.get("objective"), ((Number) raw.get("maxPlayers")).intValue());
+      // Fail now rather than when the map is used
+      entry.getParsedProto();
+      entry.getParsedEdition();
+      return entry;
+    }
+
+  }
+
+  @Data
+  static final class FileStamp {
+
+    private static final long ABSENT = -1;
+
+    private final String path;
+    private final long modified;
+    private final long size;
+
+    static FileStamp of(File file) {
+      if (!file.isFile()) {
+        return new FileStamp(file.getAbsolutePath(), ABSENT, ABSENT);
+      }
+      return new FileStamp(file.getAbsolutePath(), file.lastModified(), file.length());
+    }
+
+    /**
+     * @return If the file is unchanged, or still does not exist if it did not when stamped.
+     */
+    boolean matches() {
+      File file = new File(path);
+      if (!file.isFile()) {
+        return modified == ABSENT;
+      }
+      return file.lastModified() == modified && file.length() == size;
+    }
+
+    private Map<String, Object> serialize() {
+      Map<String, Object> result = Maps.newLinkedHashMap();
+      result.put("path", path);
+      result.put("modified", modified);
+      result.put("size", size);
+      return result;
+    }
+
+    private static FileStamp deserialize(Map<?, ?> raw) {
+      return new FileStamp((String) raw.get("path"), ((Number) raw.get("modified")).longValue(),
+          ((Number) raw.get("size")).longValue());
+    }
+
+  }
+
+}
@@ -28,34 +28,57 @@ package in.twizmwaz.cardinal.module.repository;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import in.twizmwaz.cardinal.Cardinal;
-import in.twizmwaz.cardinal.module.AbstractModule;
+import in.twizmwaz.cardinal.event.repository.RepositoryReloadEvent;
+import in.twizmwaz.cardinal.module.AbstractListenerModule;
 import in.twizmwaz.cardinal.module.ModuleEntry;
 import in.twizmwaz.cardinal.module.contributor.Contributor;
 import in.twizmwaz.cardinal.util.Proto;
+import in.twizmwaz.cardinal.util.document.MapDocuments;
+import in.twizmwaz.cardinal.util.document.MapElement;
 import lombok.Getter;
 import lombok.NonNull;
-import org.jdom2.Content;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.JDOMException;
-import org.jdom2.input.SAXBuilder;
-import org.jdom2.located.LocatedJDOMFactory;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLStreamException;
 
 @ModuleEntry
-public class RepositoryModule extends AbstractModule {
+public class RepositoryModule extends AbstractListenerModule {
 
   @Getter
-  private final Map<String, LoadedMap> loadedMaps = Maps.newHashMap();
+  private volatile Map<String, LoadedMap> loadedMaps = Collections.emptyMap();
+  private final Map<File, LoadedMap> mapsByDirectory = Maps.newConcurrentMap();
+  private final RepositoryIndex index =
+      new RepositoryIndex(new File(Cardinal.getInstance().getDataFolder(), "repository-index.yml"));
+  private final Map<File, File> repositories = Maps.newConcurrentMap();
+  private final IncludeCache includes = new IncludeCache();
+  private final CompiledMaps compiledMaps = new CompiledMaps(
+      Cardinal.getInstance().getConfig().getBoolean("cacheCompiledMaps", true)
+          ? new File(Cardinal.getInstance().getDataFolder(), "compiled") : null);
+  private final DocumentCache documents =
+      new DocumentCache(Cardinal.getInstance().getConfig().getInt("documentCacheSize", 4), this::loadDocument);
+  // Weak keys, so a converted document goes away with the cached root element it was built from
+  private final Map<MapElement, Document> converted = Collections.synchronizedMap(new WeakHashMap<>());
+  private final List<RepositoryWatcher> watchers = Lists.newCopyOnWriteArrayList();
 
   /**
    * Creates a new module instance.
@@ -71,29 +94,106 @@ public class RepositoryModule extends AbstractModule {
   }
 
   /**
-   * @param file Recursively loads maps from a directory.
+   * @param file Recursively loads maps from a directory, and reloads them when they change if enabled.
    */
   public void loadRepository(File file) {
     if (!file.exists()) {
       file.mkdir();
     }
+    scanRepository(file);
+    if (Cardinal.getInstance().getConfig().getBoolean("watchRepository", true)) {
+      try {
+        RepositoryWatcher watcher = new RepositoryWatcher(file, changed -> reloadRepository(file, changed));
+        watchers.add(watcher);
+        watcher.start();
+      } catch (IOException ex) {
+        Cardinal.getPluginLogger().warning("Could not watch " + file.getAbsolutePath() + " for changes");
+      }
+    }
+  }
+
+  /**
+   * Stops watching repositories when the plugin is disabled.
+   *
+   * @param event The event called.
+   */
+  @EventHandler
+  public void onPluginDisable(PluginDisableEvent event) {
+    if (event.getPlugin().equals(Cardinal.getInstance())) {
+      watchers.forEach(RepositoryWatcher::close);
+      watchers.clear();
+    }
+  }
+
+  private void reloadRepository(@NonNull File file, @NonNull Set<Path> changed) {
+    Cardinal.getPluginLogger().info(changed.size() + " files changed in " + file.getAbsolutePath());
+    Map<LoadedMap, LoadedMap> reloaded = scanRepository(file);
+    reloaded.keySet().forEach(documents::invalidate);
+    if (!reloaded.isEmpty()) {
+      Bukkit.getScheduler().runTask(Cardinal.getInstance(),
+          () -> Bukkit.getPluginManager().callEvent(new RepositoryReloadEvent(reloaded)));
+    }
+  }
+
+  /**
+   * Loads every map in a repository. Maps that have not changed since they were last loaded keep their existing
+   * instance, and a map that fails to parse again keeps its last working version.
+   *
+   * @param file The repository root.
+   * @return The maps that were replaced, mapped to their replacements.
+   */
+  private synchronized Map<LoadedMap, LoadedMap> scanRepository(@NonNull File file) {
+    long start = System.nanoTime();
     List<File> candidates = Lists.newArrayList();
     candidates.add(file);
     scanForDirectories(file).forEach(candidates::add);
     List<File> maps = Lists.newArrayList();
     maps.addAll(candidates.stream().filter(this::checkDirectory).collect(Collectors.toList()));
-    Map<String, LoadedMap> loaded = Maps.newHashMap();
-    maps.forEach(map -> {
+    AtomicInteger unchanged = new AtomicInteger();
+    List<LoadedMap> results = maps.parallelStream().map(map -> {
+      repositories.put(map, file);
+      LoadedMap current = mapsByDirectory.get(map);
+      RepositoryIndex.Entry entry = index.get(map);
+      if (entry != null) {
+        unchanged.incrementAndGet();
+        return current != null ? current : new LoadedMap(map, entry.getParsedProto(), entry.getName(),
+            entry.getGamemode(), entry.getParsedEdition(), entry.getObjective(), Maps.newHashMap(),
+            Maps.newHashMap(), entry.getMaxPlayers());
+      }
       LoadedMap loadedMap = loadMap(map, file);
-      if (loadedMap != null) {
-        loaded.put(loadedMap.getName(), loadedMap);
-      } else {
+      if (loadedMap == null) {
         Cardinal.getPluginLogger().warning("Failed to load map from " + map);
+        return current;
+      }
+      return loadedMap;
+    }).collect(Collectors.toList());
+
+    Map<File, LoadedMap> previous = Maps.newHashMap();
+    mapsByDirectory.forEach((directory, map) -> {
+      if (file.equals(repositories.get(directory))) {
+        previous.put(directory, map);
+      }
+    });
+    mapsByDirectory.keySet().removeAll(previous.keySet());
+    Map<String, LoadedMap> loaded = Maps.newHashMap(loadedMaps);
+    loaded.values().removeAll(previous.values());
+    Map<LoadedMap, LoadedMap> reloaded = Maps.newHashMap();
+    results.stream().filter(Objects::nonNull).forEach(loadedMap -> {
+      mapsByDirectory.put(loadedMap.getDirectory(), loadedMap);
+      loaded.put(loadedMap.getName(), loadedMap);
+      LoadedMap old = previous.get(loadedMap.getDirectory());
+      if (old != null && old != loadedMap) {
+        reloaded.put(old, loadedMap);
       }
     });
-    loadedMaps.putAll(loaded);
-    Cardinal.getPluginLogger().info("Loaded " + maps.size()
-        + " maps from " + file.getAbsolutePath());
+    loadedMaps = Collections.unmodifiableMap(loaded);
+    index.retain(file, maps);
+    index.save();
+    Cardinal.getPluginLogger().info("Loaded " + maps.size() + " maps (" + unchanged.get() + " unchanged) from "
+        + file.getAbsolutePath() + " in " + (System.nanoTime() - start) / 1000000 + "ms");
+    Cardinal.getPluginLogger().info("Include cache: " + includes.getHits() + " hits, "
+        + includes.getMisses() + " files parsed");
+    return reloaded;
   }
 
   private List<File> scanForDirectories(@NonNull File file) {
@@ -101,6 +201,9 @@ public class RepositoryModule extends AbstractModule {
     File[] list = file.listFiles();
     if (list != null) {
       for (File toCheck : list) {
+        if (MapArchives.isArchive(toCheck)) {
+          results.add(toCheck);
+        }
         if (!toCheck.isDirectory()) {
           continue;
         }
@@ -112,6 +215,9 @@ public class RepositoryModule extends AbstractModule {
   }
 
   private boolean checkDirectory(@NonNull File file) {
+    if (MapArchives.isArchive(file)) {
+      return MapArchives.isMap(file);
+    }
     List<String> requirements = Arrays.asList("map.xml", "region", "level.dat");
     if (file.listFiles() != null) {
       if (Arrays.asList(file.list()).containsAll(requirements)) {
@@ -123,51 +229,31 @@ public class RepositoryModule extends AbstractModule {
 
   private LoadedMap loadMap(@NonNull File map, @NonNull File repo) {
     Cardinal.getPluginLogger().info("Loading map from " + map.getAbsolutePath());
-    SAXBuilder builder = new SAXBuilder();
-    builder.setJDOMFactory(new LocatedJDOMFactory());
     try {
-      Document doc = builder.build(new FileInputStream(map.getAbsolutePath() + "/map.xml"));
-      Element root = doc.getRootElement();
-      Map<Element, Element> includeReplacements = Maps.newHashMap();
-      for (Content descendant : root.getDescendants()) {
-        if (descendant.getCType().equals(Content.CType.Element)
-            && ((Element) descendant).getName().equals("include")) {
-          Element includeElement = (Element) descendant;
-          String source = includeElement.getAttributeValue("src");
-          File include = new File(map.getParentFile(), source);
-          if (!include.exists()) {
-            include = new File(repo, source);
-          }
-          Document includeDoc = builder.build(include);
-          includeReplacements.put(includeElement, includeDoc.getRootElement());
-        }
-      }
-      includeReplacements.forEach((original, replacement) -> {
-        List<Content> toAdd = new ArrayList<Content>(replacement.getContent().size());
-        replacement.getContent().forEach(content -> toAdd.add(content.clone().detach()));
-        original.getParentElement().addContent(toAdd);
-        original.getParentElement().removeContent(original);
-      });
+      List<File> files = Lists.newArrayList();
+      MapElement root = loadDocument(map, repo, files);
       Proto proto = Proto.parseProto(root.getAttributeValue("proto"));
       String name = root.getChildText("name");
       String gamemode = root.getChildText("gamemode");
       LoadedMap.Edition edition = LoadedMap.Edition.forName(root.getChildText("edition"));
       String objective = root.getChildText("objective");
       Map<Contributor, String> authors = Maps.newHashMap();
-      for (Element authorsElement : root.getChildren("authors")) {
-        for (Element author : authorsElement.getChildren()) {
+      for (MapElement authorsElement : root.getChildren("authors")) {
+        for (MapElement author : authorsElement.getChildren()) {
           // putContributor(author, authors);
         }
       }
       Map<Contributor, String> contributors = Maps.newHashMap();
-      for (Element contributorsElement : root.getChildren("contributors")) {
-        for (Element contributor : contributorsElement.getChildren()) {
+      for (MapElement contributorsElement : root.getChildren("contributors")) {
+        for (MapElement contributor : contributorsElement.getChildren()) {
           // putContributor(contributor, contributors);
         }
       }
 
-      return new LoadedMap(map, doc, proto, name, gamemode, edition, objective, authors, contributors, 0);
-    } catch (NullPointerException | JDOMException | IOException ex) {
+      LoadedMap loadedMap = new LoadedMap(map, proto, name, gamemode, edition, objective, authors, contributors, 0);
+      index.put(loadedMap, files);
+      return loadedMap;
+    } catch (NullPointerException | XMLStreamException | IOException ex) {
       if (Cardinal.getInstance().getConfig().getBoolean("displayMapLoadErrors")) {
         ex.printStackTrace();
       }
@@ -175,4 +261,77 @@ public class RepositoryModule extends AbstractModule {
     }
   }
 
+  /**
+   * Modules that have moved to {@link MapElement} should use {@link #getRootElement(LoadedMap)} instead. The JDOM
+   * copy is built once per cached root element and shared by every caller, so it must not be modified.
+   *
+   * @param map The map.
+   * @return A located JDOM copy of the map's document.
+   */
+  public Document getDocument(@NonNull LoadedMap map) {
+    return converted.computeIfAbsent(getRootElement(map), MapDocuments::toDocument);
+  }
+
+  /**
+   * @param map The map.
+   * @return The root element of the map's document, parsed again if it is no longer cached.
+   */
+  public MapElement getRootElement(@NonNull LoadedMap map) {
+    return documents.get(map);
+  }
+
+  /**
+   * Starts parsing a map's document in the background, so it is ready when the map is loaded.
+   *
+   * @param map The map.
+   */
+  public void prefetchDocument(@NonNull LoadedMap map) {
+    documents.prefetch(map, task -> Bukkit.getScheduler().runTaskAsynchronously(Cardinal.getInstance(), task));
+  }
+
+  private MapElement loadDocument(@NonNull LoadedMap map) {
+    try {
+      return loadDocument(map.getDirectory(), repositories.get(map.getDirectory()), Lists.newArrayList());
+    } catch (XMLStreamException | IOException ex) {
+      throw new IllegalStateException("Could not load map document from " + map.getDirectory(), ex);
+    }
+  }
+
+  /**
+   * Reads a map's compiled artifact if it is current, otherwise parses its map.xml, resolves its includes, and caches
+   * the result as a compiled map. Archived maps are read straight from the archive, and are not compiled since that
+   * would mean hashing the whole archive.
+   *
+   * @param map   The map directory or archive.
+   * @param repo  The repository the map is in.
+   * @param files The list the map.xml, every resolved include file and every path an include was not found at are
+   *              added to.
+   * @return The root element of the document.
+   */
+  private MapElement loadDocument(@NonNull File map, @NonNull File repo, @NonNull List<File> files)
+      throws XMLStreamException, IOException {
+    if (MapArchives.isArchive(map)) {
+      files.add(map);
+      try (ZipFile zip = new ZipFile(map)) {
+        ZipEntry entry = MapArchives.getMapEntry(zip);
+        try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+          return includes.parse(in, map.toURI() + "!/" + entry.getName(), map.getParentFile(), repo, files);
+        }
+      }
+    }
+    MapElement compiled = compiledMaps.read(map, files);
+    if (compiled != null) {
+      return compiled;
+    }
+    File mapFile = new File(map, "map.xml");
+    files.add(mapFile);
+    MapElement root = includes.parse(mapFile, map.getParentFile(), repo, files);
+    try {
+      compiledMaps.writeCache(map, root, files);
+    } catch (IOException ex) {
+      Cardinal.getPluginLogger().warning("Could not cache the compiled map for " + map.getAbsolutePath());
+    }
+    return root;
+  }
+
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.repository;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import in.twizmwaz.cardinal.Cardinal;
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Watches the directories of a repository that can hold map documents or includes for changes. The world directories
+ * inside a map, such as region/, are not watched. Changes are collected until none have happened for a short time,
+ * then passed to the listener together on this thread.
+ */
+class RepositoryWatcher extends Thread {
+
+  private static final long DEBOUNCE_MILLIS = 1000;
+  private static final String MAP_DOCUMENT = "map.xml";
+
+  private final Consumer<Set<Path>> listener;
+  private final WatchService watchService;
+  private final Map<WatchKey, Path> directories = Maps.newHashMap();
+
+  /**
+   * @param root     The repository root.
+   * @param listener The listener called with the paths changed in each burst of changes.
+   */
+  RepositoryWatcher(@NonNull File root, @NonNull Consumer<Set<Path>> listener) throws IOException {
+    super("Cardinal repository watcher");
+    setDaemon(true);
+    this.listener = listener;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    register(root.toPath());
+  }
+
+  @Override
+  public void run() {
+    Set<Path> changed = Sets.newHashSet();
+    try {
+      while (!isInterrupted()) {
+        WatchKey key = changed.isEmpty() ? watchService.take()
+            : watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        if (key == null) {
+          notifyListener(changed);
+          changed = Sets.newHashSet();
+          continue;
+        }
+        Path directory = directories.get(key);
+        if (directory == null) {
+          // Cancelled after its events were queued
+          continue;
+        }
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind().equals(StandardWatchEventKinds.OVERFLOW)) {
+            // Events were lost, but the listener rescans the whole repository anyway
+            changed.add(directory);
+            continue;
+          }
+          Path path = directory.resolve((Path) event.context());
+          changed.add(path);
+          if (event.kind().equals(StandardWatchEventKinds.ENTRY_CREATE)) {
+            if (Files.isDirectory(path)) {
+              register(path);
+            } else if (path.getFileName().toString().equals(MAP_DOCUMENT)) {
+              // The world directories were copied in before the map document
+              unregisterChildren(directory);
+            }
+          }
+        }
+        if (!key.reset()) {
+          directories.remove(key);
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException ex) {
+      // Stopped
+    }
+  }
+
+  /**
+   * Stops watching the repository and ends this thread.
+   */
+  void close() {
+    interrupt();
+    try {
+      watchService.close();
+    } catch (IOException ex) {
+      Cardinal.getPluginLogger().log(Level.WARNING, "Could not close the repository watch service", ex);
+    }
+  }
+
+  private void notifyListener(Set<Path> changed) {
+    try {
+      listener.accept(changed);
+    } catch (RuntimeException ex) {
+      Cardinal.getPluginLogger().log(Level.WARNING, "Could not reload the map repository", ex);
+    }
+  }
+
+  private void register(Path start) {
+    try {
+      Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+          Path parent = dir.getParent();
+          if (parent != null && Files.exists(parent.resolve(MAP_DOCUMENT))) {
+            return FileVisitResult.SKIP_SUBTREE;
+          }
+          try {
+            directories.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), dir);
+          } catch (IOException ex) {
+            Cardinal.getPluginLogger().log(Level.WARNING, "Could not watch " + dir + " for changes", ex);
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException ex) {
+          Cardinal.getPluginLogger().log(Level.WARNING, "Could not watch " + file + " for changes", ex);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (IOException ex) {
+      Cardinal.getPluginLogger().log(Level.WARNING, "Could not watch " + start + " for changes", ex);
+    }
+  }
+
+  private void unregisterChildren(Path map) {
+    directories.entrySet().removeIf(entry -> {
+      if (!entry.getValue().startsWith(map) || entry.getValue().equals(map)) {
+        return false;
+      }
+      entry.getKey().cancel();
+      return true;
+    });
+  }
+
+}
@@ -30,6 +30,7 @@ import lombok.Getter;
 
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 public class Rotation {
 
@@ -54,6 +55,20 @@ public class Rotation {
     }
   }
 
+  /**
+   * Replaces maps in this rotation without moving its position.
+   *
+   * @param replacements The maps to replace, mapped to their replacements.
+   */
+  void replaceMaps(Map<LoadedMap, LoadedMap> replacements) {
+    for (int i = 0; i < maps.size(); i++) {
+      LoadedMap replacement = replacements.get(maps.get(i));
+      if (replacement != null) {
+        maps.set(i, replacement);
+      }
+    }
+  }
+
   /**
    * @return The position of the next map.
    */
@@ -29,6 +29,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.event.matchthread.MatchThreadMakeEvent;
+import in.twizmwaz.cardinal.event.repository.RepositoryReloadEvent;
 import in.twizmwaz.cardinal.match.MatchThread;
 import in.twizmwaz.cardinal.module.AbstractListenerModule;
 import in.twizmwaz.cardinal.module.ModuleEntry;
@@ -65,6 +66,16 @@ public class RotationModule extends AbstractListenerModule implements Listener {
     rotations.put(event.getMatchThread(), loadRotation(Cardinal.getModule(RepositoryModule.class)));
   }
 
+  /**
+   * Points rotations at the new versions of reloaded maps.
+   *
+   * @param event The event called.
+   */
+  @EventHandler
+  public void onRepositoryReload(RepositoryReloadEvent event) {
+    rotations.values().forEach(rotation -> rotation.replaceMaps(event.getReloaded()));
+  }
+
   /**
    * Temporary method to create a temp rotation.
    *
@@ -67,6 +67,14 @@ public class MatchScoreboardManager {
     displays.remove(container);
   }
 
+  /**
+   * Redraws the changed entries of every display in the match.
+   */
+  void flush() {
+    defaultDisplay.flush();
+    displays.values().forEach(ScoreboardDisplay::flush);
+  }
+
   /**
    * Will update a player to apply a new container data, this will add or remove a player from a scoreboard.
    * @param player The player.
@@ -48,8 +48,11 @@ import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
@@ -65,6 +68,8 @@ public class ScoreboardDisplay extends ScoreboardGroup {
 
   private int maxTeam = 0;
   Set<String> used = new HashSet<>();
+  private final Set<ScoreboardEntry> dirty = new LinkedHashSet<>();
+  private int objectivesSize = 0;
 
   SortedScoreboardGroup blitz;
   SortedScoreboardGroup score = new SortedScoreboardGroup();
@@ -88,11 +93,15 @@ public class ScoreboardDisplay extends ScoreboardGroup {
     }
     for (Team team : Team.getTeams(match)) {
       ScoreboardGroup group = new ScoreboardGroup();
-      if (Team.getTeamShownObjectives(match, team).size() > 0) {
+      List<in.twizmwaz.cardinal.module.objective.Objective> objectives = Team.getTeamShownObjectives(match, team);
+      if (objectives.size() > 0) {
         group.getEntries().add(new TeamName(this, team));
-        Team.getTeamShownObjectives(match, team).forEach(
-            obj -> group.getEntries().add(getEntryForObjective(obj, team)));
+        objectives.forEach(obj -> group.getEntries().add(getEntryForObjective(obj, team)));
         group.getEntries().add(new EmptyScoreboardEntry(this));
+        if (objectivesSize != 0) {
+          objectivesSize++;
+        }
+        objectivesSize += objectives.size() + 1;
       }
       teams.put(team, group);
     }
@@ -161,18 +170,10 @@ public class ScoreboardDisplay extends ScoreboardGroup {
    * @return The scoreboard size.
    */
   public int getSize() {
-    int size = 0;
     // TODO: hills
     // TODO: shared flags
-    // Team objectives
-    for (Team team : Team.getTeams(match)) {
-      if (Team.getTeamShownObjectives(match, team).size() > 0) {
-        if (size != 0) {
-          size++;
-        }
-        size += Team.getTeamShownObjectives(match, team).size() + 1;
-      }
-    }
+    // Team objectives, which don't change during a match
+    int size = objectivesSize;
     ScoreModule scoreModule = Cardinal.getModule(ScoreModule.class);
     if (scoreModule.hasScoring(match)) {
       if (size != 0) {
@@ -189,6 +190,27 @@ public class ScoreboardDisplay extends ScoreboardGroup {
     updatePlayerContainers();
   }
 
+  /**
+   * Marks an entry as changed, so it is redrawn on the next flush. Marking it again before then does nothing.
+   * @param entry The entry.
+   */
+  public void markDirty(ScoreboardEntry entry) {
+    dirty.add(entry);
+  }
+
+  /**
+   * Redraws the entries that changed since the last flush. Entries only send the prefixes, suffixes and scores that
+   * differ from what the viewers already have.
+   */
+  void flush() {
+    if (dirty.isEmpty()) {
+      return;
+    }
+    List<ScoreboardEntry> entries = new ArrayList<>(dirty);
+    dirty.clear();
+    entries.forEach(ScoreboardEntry::update);
+  }
+
   /**
    * Creates a new scoreboard team, used for prefixes and suffixes.
    * @return A new team.
@@ -25,6 +25,7 @@
 
 package in.twizmwaz.cardinal.module.scoreboard;
 
+import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.event.player.PlayerContainerChangeStateEvent;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.module.AbstractListenerModule;
@@ -34,6 +35,8 @@ import in.twizmwaz.cardinal.module.objective.destroyable.DestroyableModule;
 import in.twizmwaz.cardinal.module.objective.wool.WoolModule;
 import in.twizmwaz.cardinal.module.scores.ScoreModule;
 import in.twizmwaz.cardinal.module.team.TeamModule;
+import in.twizmwaz.cardinal.module.timer.MatchTimer;
+import in.twizmwaz.cardinal.module.timer.TimerModule;
 import in.twizmwaz.cardinal.playercontainer.PlayerContainerData;
 import lombok.NonNull;
 import org.bukkit.event.EventHandler;
@@ -43,20 +46,36 @@ import java.util.HashMap;
 import java.util.Map;
 
 @ModuleEntry(
-    depends = {TeamModule.class, WoolModule.class, CoreModule.class, DestroyableModule.class, ScoreModule.class})
+    depends = {TeamModule.class, WoolModule.class, CoreModule.class, DestroyableModule.class, ScoreModule.class,
+        TimerModule.class})
 public class ScoreboardModule extends AbstractListenerModule implements Listener {
 
   Map<Match, MatchScoreboardManager> scoreboards = new HashMap<>();
+  private final Map<Match, MatchTimer.Task> flushes = new HashMap<>();
 
+  /**
+   * Creates the scoreboards of a match, flushed once per tick so all changes made to an entry during a tick are sent
+   * together.
+   *
+   * @param match The match.
+   * @return If the match loaded.
+   */
   @Override
   public boolean loadMatch(@NonNull Match match) {
-    scoreboards.put(match, new MatchScoreboardManager(match));
+    MatchScoreboardManager manager = new MatchScoreboardManager(match);
+    scoreboards.put(match, manager);
+    flushes.put(match, Cardinal.getModule(TimerModule.class).getTimer(match.getMatchThread())
+        .schedule(manager::flush, 1, 1));
     return true;
   }
 
   @Override
   public void clearMatch(@NonNull Match match) {
     scoreboards.remove(match);
+    MatchTimer.Task flush = flushes.remove(match);
+    if (flush != null) {
+      flush.cancel();
+    }
   }
 
   /**
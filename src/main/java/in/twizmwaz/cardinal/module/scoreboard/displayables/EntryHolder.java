@@ -41,8 +41,11 @@ public class EntryHolder {
     entries.remove(entry);
   }
 
+  /**
+   * Marks the entries as changed, they are redrawn once their displays are flushed at the end of the tick.
+   */
   public void updateEntries() {
-    entries.forEach(ScoreboardEntry::update);
+    entries.forEach(entry -> entry.getDisplay().markDirty(entry));
   }
 
 }
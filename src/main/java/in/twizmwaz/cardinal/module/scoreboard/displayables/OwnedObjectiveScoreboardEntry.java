@@ -25,7 +25,10 @@
 
 package in.twizmwaz.cardinal.module.scoreboard.displayables;
 
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.module.objective.Objective;
 import in.twizmwaz.cardinal.module.objective.OwnedObjective;
+import in.twizmwaz.cardinal.module.objective.proximity.ProximityModule;
 import in.twizmwaz.cardinal.module.scoreboard.ScoreboardDisplay;
 import in.twizmwaz.cardinal.module.team.Team;
 import net.md_5.bungee.api.ChatColor;
@@ -52,8 +55,9 @@ public class OwnedObjectiveScoreboardEntry extends ScoreboardEntry {
 
   @Override
   public void setScore(int newScore) {
-    setPrefix(" " + objective.getPrefix((Team) getDisplay().getViewer(), attacker) + " "
-        /* + obj.getProximity(viewer, attacker)*/);
+    Team viewer = (Team) getDisplay().getViewer();
+    setPrefix(" " + objective.getPrefix(viewer, attacker) + " "
+        + Cardinal.getModule(ProximityModule.class).getProximity((Objective) objective, attacker, viewer));
     // NOTE: If viewer is null (observers) and monument is touched, the proximity will be the number of pieces: num/max
     super.setScore(newScore);
   }
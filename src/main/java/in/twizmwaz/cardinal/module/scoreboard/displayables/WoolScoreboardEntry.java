@@ -25,6 +25,8 @@
 
 package in.twizmwaz.cardinal.module.scoreboard.displayables;
 
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.module.objective.proximity.ProximityModule;
 import in.twizmwaz.cardinal.module.objective.wool.Wool;
 import in.twizmwaz.cardinal.module.scoreboard.ScoreboardDisplay;
 import in.twizmwaz.cardinal.module.team.Team;
@@ -47,8 +49,9 @@ public class WoolScoreboardEntry extends ScoreboardEntry {
 
   @Override
   public void setScore(int newScore) {
-    //TODO: Proximity
-    setPrefix(" " + wool.getPrefix((Team) getDisplay().getViewer()) + " " /* + wool.getProximity(viewer)*/);
+    Team viewer = (Team) getDisplay().getViewer();
+    setPrefix(" " + wool.getPrefix(viewer) + " "
+        + Cardinal.getModule(ProximityModule.class).getProximity(wool, wool.getTeam(), viewer));
     super.setScore(newScore);
   }
 
@@ -34,9 +34,8 @@ import in.twizmwaz.cardinal.module.team.Team;
 import in.twizmwaz.cardinal.module.team.TeamModule;
 import in.twizmwaz.cardinal.playercontainer.CompetitorContainer;
 import in.twizmwaz.cardinal.util.Numbers;
-import in.twizmwaz.cardinal.util.ParseUtil;
+import in.twizmwaz.cardinal.util.document.MapElement;
 import lombok.NonNull;
-import org.jdom2.Element;
 
 import java.util.HashMap;
 import java.util.List;
@@ -50,10 +49,10 @@ public class ScoreModule extends AbstractModule {
 
   @Override
   public boolean loadMatch(@NonNull Match match) {
-    for (Element score : match.getMap().getDocument().getRootElement().getChildren("score")) {
-      int limit = Numbers.parseInteger(ParseUtil.getFirstAttribute("limit", score), -1);
-      int kill = Numbers.parseInteger(ParseUtil.getFirstAttribute("kills", score), 0);
-      int death = Numbers.parseInteger(ParseUtil.getFirstAttribute("deaths", score), 0);
+    for (MapElement score : match.getMap().getRootElement().getChildren("score")) {
+      int limit = Numbers.parseInteger(score.getAttributeValue("limit"), -1);
+      int kill = Numbers.parseInteger(score.getAttributeValue("kills"), 0);
+      int death = Numbers.parseInteger(score.getAttributeValue("deaths"), 0);
       if (!rules.containsKey(match)) {
         rules.put(match, new ScoreRule(true, limit, kill, death));
       } else {
@@ -25,28 +25,70 @@
 
 package in.twizmwaz.cardinal.module.team;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import in.twizmwaz.cardinal.event.repository.RepositoryReloadEvent;
 import in.twizmwaz.cardinal.match.Match;
-import in.twizmwaz.cardinal.module.AbstractModule;
+import in.twizmwaz.cardinal.module.AbstractListenerModule;
 import in.twizmwaz.cardinal.module.ModuleEntry;
 import in.twizmwaz.cardinal.module.ModuleError;
 import in.twizmwaz.cardinal.module.id.IdModule;
+import in.twizmwaz.cardinal.module.repository.LoadedMap;
 import in.twizmwaz.cardinal.util.Numbers;
 import in.twizmwaz.cardinal.util.ParseUtil;
 import in.twizmwaz.cardinal.util.Strings;
 import lombok.NonNull;
 import net.md_5.bungee.api.ChatColor;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
 import org.jdom2.Element;
 import org.jdom2.located.Located;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @ModuleEntry(depends = {IdModule.class})
-public class TeamModule extends AbstractModule {
+public class TeamModule extends AbstractListenerModule {
+
+  private final Map<LoadedMap, List<TeamDefinition>> definitions = Maps.newHashMap();
 
   @Override
   public boolean loadMatch(Match match) {
-    Element element = match.getMap().getDocument().getRootElement().getChild("teams");
+    for (TeamDefinition definition : getDefinitions(match.getMap())) {
+      // Invalid and duplicate ids were reported when the definitions were parsed
+      IdModule.get().add(match, definition.getId(), definition.createTeam(), true);
+    }
+    match.getPlayerContainers().addAll(IdModule.get().getList(match, Team.class));
+    return true;
+  }
+
+  /**
+   * Gets the team definitions of a map, parsing them the first time the map is loaded.
+   *
+   * @param map The map.
+   * @return The team definitions, in document order.
+   */
+  public List<TeamDefinition> getDefinitions(@NonNull LoadedMap map) {
+    return definitions.computeIfAbsent(map, this::parseDefinitions);
+  }
+
+  /**
+   * Drops the definitions of reloaded maps, they are parsed again from the new documents.
+   *
+   * @param event The event called.
+   */
+  @EventHandler
+  public void onRepositoryReload(RepositoryReloadEvent event) {
+    event.getReloaded().keySet().forEach(definitions::remove);
+  }
+
+  private List<TeamDefinition> parseDefinitions(LoadedMap map) {
+    List<TeamDefinition> results = Lists.newArrayList();
+    Set<String> ids = Sets.newHashSet();
+    Element element = map.getDocument().getRootElement().getChild("teams");
     if (element != null) {
       element.getChildren().forEach(child -> {
         Located located = (Located) child;
@@ -60,10 +102,9 @@ public class TeamModule extends AbstractModule {
         String colorRaw = child.getAttributeValue("color");
         ChatColor color;
         if (colorRaw == null) {
-          Located locatedElement = (Located) child;
           String[] errorMessage = new String[]{"Color missing for " + name,
               "Element at " + located.getLine() + ", " + located.getColumn()};
-          errors.add(new ModuleError(this, match.getMap(), errorMessage, false));
+          errors.add(new ModuleError(this, map, errorMessage, false));
           color = ChatColor.WHITE;
         } else {
           color = ChatColor.valueOf(colorRaw.replace(" ", "_").replace("-", "_").toUpperCase());
@@ -93,17 +134,15 @@ public class TeamModule extends AbstractModule {
         if (macOverfill == 0) {
           macOverfill = Math.round(max * 1.25f);
         }
-        Team team = new Team(id, color, overHeadColor, plural, showNameTags, min, max, macOverfill, name);
-        if (!IdModule.get().add(match, id, team)) {
-          errors.add(new ModuleError(this, match.getMap(),
+        if (id.isEmpty() || !ids.add(id)) {
+          errors.add(new ModuleError(this, map,
               new String[]{"Team id is not valid or already in use",
                   "Element at " + located.getLine() + ", " + located.getColumn()}, false));
-          IdModule.get().add(match, null, team, true);
         }
+        results.add(new TeamDefinition(id, color, overHeadColor, plural, showNameTags, min, max, macOverfill, name));
       });
     }
-    match.getPlayerContainers().addAll(IdModule.get().getList(match, Team.class));
-    return true;
+    return Collections.unmodifiableList(results);
   }
 
   /**
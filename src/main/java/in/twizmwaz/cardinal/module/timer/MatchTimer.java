@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.timer;
+
+import com.google.common.collect.Lists;
+import in.twizmwaz.cardinal.Cardinal;
+import lombok.NonNull;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * The timed callbacks of a match thread, kept in a wheel of tick buckets. A tick only looks at the callbacks in one
+ * bucket, so the cost of a tick depends on what is due rather than on how many callbacks are registered. Callbacks
+ * run on the main thread.
+ */
+public class MatchTimer {
+
+  public static final int TICKS_PER_SECOND = 20;
+
+  private static final int BUCKETS = 64;
+
+  @SuppressWarnings("unchecked")
+  private final List<Task>[] wheel = new List[BUCKETS];
+  private long tick;
+
+  MatchTimer() {
+    for (int i = 0; i < BUCKETS; i++) {
+      wheel[i] = Lists.newArrayList();
+    }
+  }
+
+  /**
+   * Runs a callback once.
+   *
+   * @param callback The callback.
+   * @param delay    The ticks until it runs, at least 1.
+   * @return The task, which can be cancelled.
+   */
+  public Task schedule(@NonNull Runnable callback, long delay) {
+    return schedule(callback, delay, 0);
+  }
+
+  /**
+   * Runs a callback repeatedly until it is cancelled.
+   *
+   * @param callback The callback.
+   * @param delay    The ticks until it runs the first time, at least 1.
+   * @param period   The ticks between runs, or 0 to only run once.
+   * @return The task, which can be cancelled.
+   */
+  public Task schedule(@NonNull Runnable callback, long delay, long period) {
+    if (period < 0) {
+      throw new IllegalArgumentException("Period cannot be negative");
+    }
+    Task task = new Task(callback, period);
+    insert(task, tick + Math.max(delay, 1));
+    return task;
+  }
+
+  /**
+   * Runs a callback every second until it is cancelled.
+   *
+   * @param callback The callback.
+   * @return The task, which can be cancelled.
+   */
+  public Task scheduleSeconds(@NonNull Runnable callback) {
+    return schedule(callback, TICKS_PER_SECOND, TICKS_PER_SECOND);
+  }
+
+  private void insert(Task task, long deadline) {
+    task.deadline = deadline;
+    wheel[(int) (deadline & (BUCKETS - 1))].add(task);
+  }
+
+  /**
+   * Advances the timer by one tick, running the callbacks that are due.
+   */
+  void tick() {
+    tick++;
+    List<Task> bucket = wheel[(int) (tick & (BUCKETS - 1))];
+    if (bucket.isEmpty()) {
+      return;
+    }
+    List<Task> due = null;
+    for (Iterator<Task> iterator = bucket.iterator(); iterator.hasNext(); ) {
+      Task task = iterator.next();
+      if (task.cancelled) {
+        iterator.remove();
+      } else if (task.deadline == tick) {
+        iterator.remove();
+        if (due == null) {
+          due = Lists.newArrayList();
+        }
+        due.add(task);
+      }
+    }
+    if (due == null) {
+      return;
+    }
+    // Callbacks may schedule or cancel tasks, so they run after the bucket is done with
+    for (Task task : due) {
+      if (task.cancelled) {
+        continue;
+      }
+      if (task.period > 0) {
+        insert(task, tick + task.period);
+      } else {
+        task.cancelled = true;
+      }
+      try {
+        task.callback.run();
+      } catch (RuntimeException ex) {
+        // The rest of the due callbacks, and the other match threads' timers, still run
+        Cardinal.getPluginLogger().log(Level.SEVERE, "Timed callback threw an exception", ex);
+      }
+    }
+  }
+
+  public static class Task {
+
+    private final Runnable callback;
+    private final long period;
+    private long deadline;
+    private boolean cancelled;
+
+    private Task(Runnable callback, long period) {
+      this.callback = callback;
+      this.period = period;
+    }
+
+    /**
+     * Stops the callback from running again.
+     */
+    public void cancel() {
+      cancelled = true;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+  }
+
+}
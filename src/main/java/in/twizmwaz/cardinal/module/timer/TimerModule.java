@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.timer;
+
+import com.google.common.collect.Maps;
+import in.twizmwaz.cardinal.Cardinal;
+import in.twizmwaz.cardinal.match.MatchThread;
+import in.twizmwaz.cardinal.module.AbstractModule;
+import in.twizmwaz.cardinal.module.ModuleEntry;
+import lombok.NonNull;
+import org.bukkit.Bukkit;
+
+import java.util.Map;
+
+/**
+ * Keeps a timer for every match thread, all driven by a single repeating task on the main thread. Modules that need
+ * to run something every tick or on a delay schedule it on their match thread's timer instead of starting a task of
+ * their own.
+ */
+@ModuleEntry
+public class TimerModule extends AbstractModule {
+
+  private final Map<MatchThread, MatchTimer> timers = Maps.newConcurrentMap();
+
+  /**
+   * Constructor for the timer module.
+   */
+  public TimerModule() {
+    Bukkit.getScheduler().runTaskTimer(Cardinal.getInstance(),
+        () -> timers.values().forEach(MatchTimer::tick), 1L, 1L);
+  }
+
+  /**
+   * Gets the timer of a match thread, creating it the first time.
+   *
+   * @param matchThread The match thread.
+   * @return The match thread's timer.
+   */
+  public MatchTimer getTimer(@NonNull MatchThread matchThread) {
+    return timers.computeIfAbsent(matchThread, thread -> new MatchTimer());
+  }
+
+}
@@ -29,6 +29,7 @@ import in.twizmwaz.cardinal.Cardinal;
 import in.twizmwaz.cardinal.match.Match;
 import in.twizmwaz.cardinal.match.MatchThread;
 import in.twizmwaz.cardinal.module.channel.ChannelModule;
+import in.twizmwaz.cardinal.module.channel.OutboundQueue;
 import in.twizmwaz.cardinal.module.channel.channels.GlobalChannel;
 import in.twizmwaz.cardinal.module.channel.channels.PlayerChannel;
 import in.twizmwaz.cardinal.module.channel.channels.TeamChannel;
@@ -43,6 +44,10 @@ public class Channels {
     return Cardinal.getModule(ChannelModule.class).getGlobalChannel(matchThread);
   }
 
+  public static OutboundQueue getQueue(@NonNull MatchThread matchThread) {
+    return Cardinal.getModule(ChannelModule.class).getQueue(matchThread);
+  }
+
   public static PlayerChannel getPlayerChannel(@NonNull Player player) {
     return Cardinal.getModule(ChannelModule.class).getPlayerChannel(player);
   }
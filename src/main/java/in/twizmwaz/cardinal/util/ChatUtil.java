@@ -43,16 +43,26 @@ public class ChatUtil {
    * @param components The array of base components to send.
    */
   public static void sendMessage(CommandSender sender, BaseComponent... components) {
-    List<BaseComponent> toSend = Lists.newArrayList();
-    Locale locale = getLocale(sender);
+    sender.sendMessage(getLocalizedComponents(getLocale(sender), components));
+  }
+
+  /**
+   * Expands the language components of a message for a locale. The result can be sent to every receiver with that
+   * locale.
+   * @param locale The locale.
+   * @param components The array of base components to localize.
+   * @return The localized components.
+   */
+  public static BaseComponent[] getLocalizedComponents(Locale locale, BaseComponent... components) {
+    List<BaseComponent> localized = Lists.newArrayList();
     for (BaseComponent component : components) {
       if (component instanceof LanguageComponent) {
-        toSend.addAll(Arrays.asList(((LanguageComponent) component).getComponents(locale)));
+        localized.addAll(Arrays.asList(((LanguageComponent) component).getComponents(locale)));
       } else {
-        toSend.add(component);
+        localized.add(component);
       }
     }
-    sender.sendMessage(toSend.toArray(new BaseComponent[toSend.size()]));
+    return localized.toArray(new BaseComponent[localized.size()]);
   }
 
   /**
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from int keys to int values, which keeps both in primitive arrays.
+ */
+public class IntIntMap {
+
+  private static final int FREE = 0;
+
+  private final int missing;
+
+  private int[] keys;
+  private int[] values;
+  private boolean hasFreeKey;
+  private int freeValue;
+  private int size;
+
+  /**
+   * @param missing The value returned for keys that are not in the map.
+   */
+  public IntIntMap(int missing) {
+    this.missing = missing;
+    keys = new int[16];
+    values = new int[16];
+  }
+
+  /**
+   * @param key The key.
+   * @return The value of the key, or the missing value if it is not in the map.
+   */
+  public int get(int key) {
+    if (key == FREE) {
+      return hasFreeKey ? freeValue : missing;
+    }
+    int mask = keys.length - 1;
+    for (int slot = mix(key) & mask; keys[slot] != FREE; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * @param key   The key.
+   * @param value The value to set the key to.
+   */
+  public void put(int key, int value) {
+    if (key == FREE) {
+      if (!hasFreeKey) {
+        size++;
+      }
+      hasFreeKey = true;
+      freeValue = value;
+      return;
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+  }
+
+  /**
+   * @param key The key to remove.
+   */
+  public void remove(int key) {
+    if (key == FREE) {
+      if (hasFreeKey) {
+        size--;
+      }
+      hasFreeKey = false;
+      return;
+    }
+    int mask = keys.length - 1;
+    int slot = mix(key) & mask;
+    while (keys[slot] != key) {
+      if (keys[slot] == FREE) {
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    size--;
+    // Shift the entries following the removed one back so every probe sequence stays unbroken.
+    int gap = slot;
+    for (slot = (slot + 1) & mask; keys[slot] != FREE; slot = (slot + 1) & mask) {
+      int home = mix(keys[slot]) & mask;
+      if (gap <= slot ? home <= gap || home > slot : home <= gap && home > slot) {
+        keys[gap] = keys[slot];
+        values[gap] = values[slot];
+        gap = slot;
+      }
+    }
+    keys[gap] = FREE;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, FREE);
+    hasFreeKey = false;
+    size = 0;
+  }
+
+  private void resize(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new int[capacity];
+    values = new int[capacity];
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE) {
+        int slot = mix(oldKeys[i]) & mask;
+        while (keys[slot] != FREE) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  static int mix(int key) {
+    int hash = key * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+}
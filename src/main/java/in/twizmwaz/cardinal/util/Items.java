@@ -85,6 +85,9 @@ public class Items {
     if (!item1.getType().equals(item2.getType())) {
       return false;
     }
+    if (item1.getDurability() == item2.getDurability()) {
+      return item1.isSimilar(item2);
+    }
     return toMaxDurability(item1).isSimilar(toMaxDurability(item2));
   }
 
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util.document;
+
+import com.google.common.collect.Maps;
+import lombok.NonNull;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.located.LocatedElement;
+import org.jdom2.located.LocatedText;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Converts {@link MapElement} trees to located JDOM documents, for modules that have not moved to {@link MapElement}.
+ * Each call builds a new tree. Prefixed names are put back in the namespaces their xmlns attributes declare. The text
+ * of an element with children comes before them, so {@code getText} reads the same as it did from the source.
+ */
+public class MapDocuments {
+
+  private static final String XMLNS = "xmlns";
+  private static final Map<String, Namespace> ROOT_SCOPE =
+      Collections.singletonMap(Namespace.XML_NAMESPACE.getPrefix(), Namespace.XML_NAMESPACE);
+
+  /**
+   * @param root The root element.
+   * @return A new JDOM document with the same content and locations.
+   */
+  public static Document toDocument(@NonNull MapElement root) {
+    return new Document(toElement(root));
+  }
+
+  /**
+   * @param element The element.
+   * @return A new located JDOM element with the same content and locations.
+   */
+  public static Element toElement(@NonNull MapElement element) {
+    return toElement(element, ROOT_SCOPE);
+  }
+
+  private static Element toElement(MapElement element, Map<String, Namespace> parentScope) {
+    Map<String, Namespace> scope = parentScope;
+    for (int i = 0; i < element.getAttributeCount(); i++) {
+      String prefix = getDeclaredPrefix(element.getAttributeName(i));
+      if (prefix != null) {
+        if (scope == parentScope) {
+          scope = Maps.newHashMap(parentScope);
+        }
+        scope.put(prefix, Namespace.getNamespace(prefix, element.getAttributeValue(i)));
+      }
+    }
+    LocatedElement result = new LocatedElement(getLocalName(element.getName()),
+        getNamespace(scope, element.getName(), true));
+    result.setLine(element.getLine());
+    result.setColumn(element.getColumn());
+    for (int i = 0; i < element.getAttributeCount(); i++) {
+      String name = element.getAttributeName(i);
+      String prefix = getDeclaredPrefix(name);
+      if (prefix != null) {
+        if (!prefix.equals(result.getNamespacePrefix())) {
+          result.addNamespaceDeclaration(scope.get(prefix));
+        }
+      } else {
+        result.setAttribute(getLocalName(name), element.getAttributeValue(i), getNamespace(scope, name, false));
+      }
+    }
+    if (!element.getText().isEmpty()) {
+      LocatedText text = new LocatedText(element.getText());
+      text.setLine(element.getLine());
+      text.setColumn(element.getColumn());
+      result.addContent(text);
+    }
+    for (MapElement child : element.getChildren()) {
+      result.addContent(toElement(child, scope));
+    }
+    return result;
+  }
+
+  /**
+   * @param name The attribute name.
+   * @return The declared prefix, empty for the default namespace, or null if the attribute declares none.
+   */
+  private static String getDeclaredPrefix(String name) {
+    if (name.equals(XMLNS)) {
+      return "";
+    }
+    return name.startsWith(XMLNS + ':') ? name.substring(XMLNS.length() + 1) : null;
+  }
+
+  private static String getLocalName(String name) {
+    return name.substring(name.indexOf(':') + 1);
+  }
+
+  /**
+   * @param scope   The namespaces in scope, by prefix.
+   * @param name    The qualified name.
+   * @param element If the name is an element's, which takes the default namespace when it has no prefix.
+   * @return The namespace of the name.
+   */
+  private static Namespace getNamespace(Map<String, Namespace> scope, String name, boolean element) {
+    int separator = name.indexOf(':');
+    if (separator == -1 && !element) {
+      return Namespace.NO_NAMESPACE;
+    }
+    Namespace namespace = scope.get(separator == -1 ? "" : name.substring(0, separator));
+    return namespace != null ? namespace : Namespace.NO_NAMESPACE;
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util.document;
+
+import com.google.common.collect.Lists;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable XML element, the compact counterpart of a located JDOM element. Attributes are stored as a flat array
+ * of name and value pairs, and the line and column are packed into a single int.
+ *
+ * <p>Text is only kept for elements with non-whitespace text, since whitespace between child elements is never read.
+ * The text of an element that also has children is kept whole, without its position between them.
+ */
+public final class MapElement {
+
+  private static final int COLUMN_BITS = 12;
+  private static final int COLUMN_MASK = (1 << COLUMN_BITS) - 1;
+  private static final int MAX_LINE = (1 << (Integer.SIZE - COLUMN_BITS)) - 1;
+
+  @Getter
+  private final String name;
+  private final String[] attributes;
+  private final MapElement[] children;
+  @Getter
+  private final String text;
+  private final int location;
+
+  MapElement(@NonNull String name, @NonNull String[] attributes, @NonNull MapElement[] children, @NonNull String text,
+             int line, int column) {
+    this.name = name;
+    this.attributes = attributes;
+    this.children = children;
+    this.text = text;
+    this.location = (Math.min(Math.max(line, 0), MAX_LINE) << COLUMN_BITS) | Math.min(Math.max(column, 0), COLUMN_MASK);
+  }
+
+  /**
+   * @return The line this element starts on.
+   */
+  public int getLine() {
+    return location >>> COLUMN_BITS;
+  }
+
+  /**
+   * @return The column this element starts on, capped at 4095.
+   */
+  public int getColumn() {
+    return location & COLUMN_MASK;
+  }
+
+  public String getTextTrim() {
+    return text.trim();
+  }
+
+  /**
+   * @param name The attribute name.
+   * @return The attribute value, or null if the element does not have it.
+   */
+  public String getAttributeValue(@NonNull String name) {
+    for (int i = 0; i < attributes.length; i += 2) {
+      if (attributes[i].equals(name)) {
+        return attributes[i + 1];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param name     The attribute name.
+   * @param fallback The value to return if the element does not have the attribute.
+   * @return The attribute value.
+   */
+  public String getAttributeValue(@NonNull String name, String fallback) {
+    String value = getAttributeValue(name);
+    return value != null ? value : fallback;
+  }
+
+  /**
+   * @return The number of attributes on this element.
+   */
+  public int getAttributeCount() {
+    return attributes.length / 2;
+  }
+
+  public String getAttributeName(int index) {
+    return attributes[index * 2];
+  }
+
+  public String getAttributeValue(int index) {
+    return attributes[index * 2 + 1];
+  }
+
+  public List<MapElement> getChildren() {
+    return Collections.unmodifiableList(Arrays.asList(children));
+  }
+
+  /**
+   * @param name The child name.
+   * @return Every child with the name, in document order.
+   */
+  public List<MapElement> getChildren(@NonNull String name) {
+    List<MapElement> results = Lists.newArrayList();
+    for (MapElement child : children) {
+      if (child.name.equals(name)) {
+        results.add(child);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * @param name The child name.
+   * @return The first child with the name, or null if there is none.
+   */
+  public MapElement getChild(@NonNull String name) {
+    for (MapElement child : children) {
+      if (child.name.equals(name)) {
+        return child;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param name The child name.
+   * @return The text of the first child with the name, or null if there is none.
+   */
+  public String getChildText(@NonNull String name) {
+    MapElement child = getChild(name);
+    return child != null ? child.text : null;
+  }
+
+  @Override
+  public String toString() {
+    return "MapElement(" + name + " at " + getLine() + ", " + getColumn() + ")";
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util.document;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.NonNull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes and reads {@link MapElement} trees in a binary form. Every distinct string is written once to a table at the
+ * start, and elements refer to strings by their index in it.
+ */
+public class MapElementCodec {
+
+  private static final MapElement[] NO_CHILDREN = new MapElement[0];
+
+  /**
+   * @param root The root element to write.
+   * @param out  The output to write to.
+   */
+  public static void write(@NonNull MapElement root, @NonNull DataOutput out) throws IOException {
+    Map<String, Integer> strings = Maps.newLinkedHashMap();
+    collectStrings(root, strings);
+    out.writeInt(strings.size());
+    for (String string : strings.keySet()) {
+      byte[] bytes = string.getBytes(Charsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+    writeElement(root, strings, out);
+  }
+
+  /**
+   * @param buffer The buffer to read from, positioned at the start of a tree written by
+   *               {@link #write(MapElement, DataOutput)}.
+   * @return The root element.
+   */
+  public static MapElement read(@NonNull ByteBuffer buffer) throws IOException {
+    try {
+      int count = buffer.getInt();
+      if (count < 0 || count > buffer.remaining()) {
+        throw new IOException("Invalid string table size " + count);
+      }
+      List<String> strings = Lists.newArrayListWithCapacity(count);
+      for (int i = 0; i < count; i++) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        strings.add(new String(bytes, Charsets.UTF_8));
+      }
+      return readElement(buffer, strings);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException ex) {
+      throw new IOException("Truncated or corrupt element tree", ex);
+    }
+  }
+
+  private static void collectStrings(MapElement element, Map<String, Integer> strings) {
+    strings.putIfAbsent(element.getName(), strings.size());
+    for (int i = 0; i < element.getAttributeCount(); i++) {
+      strings.putIfAbsent(element.getAttributeName(i), strings.size());
+      strings.putIfAbsent(element.getAttributeValue(i), strings.size());
+    }
+    strings.putIfAbsent(element.getText(), strings.size());
+    element.getChildren().forEach(child -> collectStrings(child, strings));
+  }
+
+  private static void writeElement(MapElement element, Map<String, Integer> strings, DataOutput out)
+      throws IOException {
+    out.writeInt(strings.get(element.getName()));
+    out.writeInt(element.getLine());
+    out.writeShort(element.getColumn());
+    out.writeShort(element.getAttributeCount());
+    for (int i = 0; i < element.getAttributeCount(); i++) {
+      out.writeInt(strings.get(element.getAttributeName(i)));
+      out.writeInt(strings.get(element.getAttributeValue(i)));
+    }
+    out.writeInt(strings.get(element.getText()));
+    List<MapElement> children = element.getChildren();
+    out.writeInt(children.size());
+    for (MapElement child : children) {
+      writeElement(child, strings, out);
+    }
+  }
+
+  private static MapElement readElement(ByteBuffer buffer, List<String> strings) throws IOException {
+    String name = strings.get(buffer.getInt());
+    int line = buffer.getInt();
+    int column = buffer.getShort();
+    String[] attributes = new String[buffer.getShort() * 2];
+    for (int i = 0; i < attributes.length; i++) {
+      attributes[i] = strings.get(buffer.getInt());
+    }
+    String text = strings.get(buffer.getInt());
+    int childCount = buffer.getInt();
+    if (childCount < 0 || childCount > buffer.remaining()) {
+      throw new IOException("Invalid child count " + childCount);
+    }
+    MapElement[] children = childCount == 0 ? NO_CHILDREN : new MapElement[childCount];
+    for (int i = 0; i < childCount; i++) {
+      children[i] = readElement(buffer, strings);
+    }
+    return new MapElement(name, attributes, children, text, line, column);
+  }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util.document;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Parses XML files into {@link MapElement} trees with a StAX reader, without building an intermediate document.
+ * Names keep their namespace prefix, and namespace declarations are kept as xmlns attributes. An element with both
+ * text and child elements keeps all of its own text, joined in document order, like JDOM's {@code getText}.
+ */
+public final class MapElementParser {
+
+  private static final MapElement[] NO_CHILDREN = new MapElement[0];
+  private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+  static {
+    FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  private final IncludeResolver resolver;
+
+  /**
+   * Creates a parser that keeps include elements as they are.
+   */
+  public MapElementParser() {
+    this(null);
+  }
+
+  /**
+   * @param resolver The resolver include elements are replaced with, or null to keep them.
+   */
+  public MapElementParser(IncludeResolver resolver) {
+    this.resolver = resolver;
+  }
+
+  /**
+   * @param file The file to parse.
+   * @return The root element.
+   */
+  public MapElement parse(@NonNull File file) throws IOException, XMLStreamException {
+    try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+      return parse(in, file.toURI().toString());
+    }
+  }
+
+  /**
+   * @param in       The stream to parse, which is left open.
+   * @param systemId The location of the document, used in errors.
+   * @return The root element.
+   */
+  public MapElement parse(@NonNull InputStream in, @NonNull String systemId) throws IOException, XMLStreamException {
+    XMLStreamReader reader = FACTORY.createXMLStreamReader(systemId, in);
+    try {
+      return parse(reader);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private MapElement parse(XMLStreamReader reader) throws IOException, XMLStreamException {
+    // Names repeat constantly within a document, so each is only stored once
+    Map<String, String> names = Maps.newHashMap();
+    Deque<Builder> stack = new ArrayDeque<>();
+    MapElement root = null;
+    while (reader.hasNext()) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          // Namespace declarations are kept as the xmlns attributes they were written as, ahead of the others
+          int declarations = reader.getNamespaceCount();
+          String[] attributes = new String[(declarations + reader.getAttributeCount()) * 2];
+          for (int i = 0; i < declarations; i++) {
+            attributes[i * 2] = names.computeIfAbsent(getQualifiedName("xmlns", reader.getNamespacePrefix(i)),
+                name -> name);
+            attributes[i * 2 + 1] = reader.getNamespaceURI(i);
+          }
+          for (int i = 0; i < reader.getAttributeCount(); i++) {
+            int index = (declarations + i) * 2;
+            attributes[index] = names.computeIfAbsent(
+                getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), name -> name);
+            attributes[index + 1] = reader.getAttributeValue(i);
+          }
+          Location location = reader.getLocation();
+          stack.push(new Builder(names.computeIfAbsent(getQualifiedName(reader.getPrefix(), reader.getLocalName()),
+              name -> name), attributes, location.getLineNumber(), location.getColumnNumber()));
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+          if (!stack.isEmpty()) {
+            stack.peek().appendText(reader.getText());
+          }
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          MapElement element = stack.pop().build();
+          if (stack.isEmpty()) {
+            root = element;
+          } else if (resolver != null && element.getName().equals("include")) {
+            stack.peek().getIncluded().addAll(resolver.resolve(element));
+          } else {
+            stack.peek().getChildren().add(element);
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    if (root == null) {
+      throw new XMLStreamException("Document has no root element");
+    }
+    return root;
+  }
+
+  private static String getQualifiedName(String prefix, String localName) {
+    if (localName == null || localName.isEmpty()) {
+      return prefix;
+    }
+    return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+  }
+
+  /**
+   * Replaces include elements while a document is parsed.
+   */
+  @FunctionalInterface
+  public interface IncludeResolver {
+
+    /**
+     * @param include The include element.
+     * @return The elements to add to the end of the include's parent in its place.
+     */
+    List<MapElement> resolve(MapElement include) throws IOException, XMLStreamException;
+
+  }
+
+  private static final class Builder {
+
+    private final String name;
+    private final String[] attributes;
+    private final int line;
+    private final int column;
+    private List<MapElement> children;
+    private List<MapElement> included;
+    private StringBuilder text;
+
+    private Builder(String name, String[] attributes, int line, int column) {
+      this.name = name;
+      this.attributes = attributes;
+      this.line = line;
+      this.column = column;
+    }
+
+    private List<MapElement> getChildren() {
+      if (children == null) {
+        children = Lists.newArrayList();
+      }
+      return children;
+    }
+
+    private List<MapElement> getIncluded() {
+      if (included == null) {
+        included = Lists.newArrayList();
+      }
+      return included;
+    }
+
+    private void appendText(String value) {
+      if (text == null) {
+        text = new StringBuilder(value.length());
+      }
+      text.append(value);
+    }
+
+    private MapElement build() {
+      // Included elements go after the element's own children, the same as the JDOM path did
+      if (included != null) {
+        getChildren().addAll(included);
+      }
+      MapElement[] childArray = children != null ? children.toArray(new MapElement[children.size()]) : NO_CHILDREN;
+      String value = text != null && text.toString().trim().length() > 0 ? text.toString() : "";
+      return new MapElement(name, attributes, childArray, value, line, column);
+    }
+
+  }
+
+}
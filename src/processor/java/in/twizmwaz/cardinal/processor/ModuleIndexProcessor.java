@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes an index of every {@code @ModuleEntry} class, with its dependency and load before edges, so the plugin does
+ * not need to scan its own jar at startup.
+ *
+ * <p>Each line of the index is {@code module<TAB>depends<TAB>loadBefore}, where the edges are comma separated binary
+ * class names. This format is read by {@code ModuleLoader#loadIndex}.
+ */
+@SupportedAnnotationTypes(ModuleIndexProcessor.MODULE_ENTRY)
+public final class ModuleIndexProcessor extends AbstractProcessor {
+
+  static final String MODULE_ENTRY = "in.twizmwaz.cardinal.module.ModuleEntry";
+  static final String MODULE_INDEX = "META-INF/cardinal/modules.index";
+
+  private final Map<String, String> entries = new TreeMap<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+      return false;
+    }
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (!(element instanceof TypeElement)) {
+          continue;
+        }
+        TypeElement type = (TypeElement) element;
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+          if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(MODULE_ENTRY)) {
+            entries.put(getBinaryName(type),
+                getClassNames(mirror, "depends") + '\t' + getClassNames(mirror, "loadBefore"));
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private String getClassNames(AnnotationMirror mirror, String name) {
+    StringJoiner joiner = new StringJoiner(",");
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+        : mirror.getElementValues().entrySet()) {
+      if (!entry.getKey().getSimpleName().contentEquals(name)) {
+        continue;
+      }
+      for (Object value : (List<?>) entry.getValue().getValue()) {
+        TypeMirror typeMirror = (TypeMirror) ((AnnotationValue) value).getValue();
+        joiner.add(getBinaryName((TypeElement) ((DeclaredType) typeMirror).asElement()));
+      }
+    }
+    return joiner.toString();
+  }
+
+  private String getBinaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  private void writeIndex() {
+    if (entries.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", MODULE_INDEX);
+      try (PrintWriter writer = new PrintWriter(file.openWriter())) {
+        entries.forEach((module, edges) -> writer.print(module + '\t' + edges + '\n'));
+      }
+    } catch (IOException ex) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not write module index: " + ex.getMessage());
+    }
+  }
+
+}
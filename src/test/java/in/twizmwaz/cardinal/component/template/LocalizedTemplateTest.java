@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.component.template;
+
+import ee.ellytr.chat.LocaleRegistry;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Locale;
+
+public class LocalizedTemplateTest {
+
+  private static final Locale LOCALE = new Locale("en", "US");
+
+  @BeforeClass
+  public static void registerLocale() {
+    LocaleRegistry registry = new LocaleRegistry();
+    registry.addLocaleFile(LOCALE,
+        LocalizedTemplateTest.class.getClassLoader().getResourceAsStream("lang/cardinal/en_US.properties"));
+    registry.register();
+  }
+
+  @Test
+  public void testConstantIsCompiled() {
+    Assert.assertTrue(LocalizedTemplate.get("objective.wool.touched", LOCALE).isCompiled());
+  }
+
+  @Test
+  public void testFill() {
+    BaseComponent[] message = LocalizedTemplate.get("objective.wool.touched", LOCALE).fill(LOCALE, getArguments());
+    Assert.assertEquals("Steve picked up Red Wool for Blue", TextComponent.toPlainText(message));
+  }
+
+  @Test
+  public void testTopLevelComponentsAreCopies() {
+    LocalizedTemplate template = LocalizedTemplate.get("objective.wool.touched", LOCALE);
+    BaseComponent[] first = template.fill(LOCALE, getArguments());
+    for (BaseComponent component : first) {
+      component.setColor(ChatColor.RED);
+      new TextComponent("").addExtra(component);
+    }
+    BaseComponent[] second = template.fill(LOCALE, getArguments());
+    Assert.assertEquals(first.length, second.length);
+    for (int i = 0; i < second.length; i++) {
+      Assert.assertNotSame(first[i], second[i]);
+      Assert.assertNotEquals(ChatColor.RED, second[i].getColorRaw());
+    }
+    Assert.assertEquals("Steve picked up Red Wool for Blue", TextComponent.toPlainText(second));
+  }
+
+  private static BaseComponent[] getArguments() {
+    return new BaseComponent[]{new TextComponent("Steve"), new TextComponent("Red Wool"), new TextComponent("Blue")};
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class CoreColumnsTest {
+
+  @Test
+  public void testEmpty() {
+    CoreColumns columns = new CoreColumns(Collections.emptyList(), new int[0][]);
+    Assert.assertEquals(-1, columns.getLeakedIndex(0, 0, 0));
+  }
+
+  @Test
+  public void testThreshold() {
+    CoreColumns columns = create(new int[]{0, 0, 4, 4, 10});
+    Assert.assertEquals(0, columns.getLeakedIndex(0, 10, 0));
+    Assert.assertEquals(0, columns.getLeakedIndex(4, -64, 4));
+    Assert.assertEquals(-1, columns.getLeakedIndex(2, 11, 2));
+  }
+
+  @Test
+  public void testOutsideColumns() {
+    CoreColumns columns = create(new int[]{0, 0, 4, 4, 10});
+    Assert.assertEquals(-1, columns.getLeakedIndex(-1, 0, 0));
+    Assert.assertEquals(-1, columns.getLeakedIndex(5, 0, 0));
+    Assert.assertEquals(-1, columns.getLeakedIndex(0, 0, -1));
+    Assert.assertEquals(-1, columns.getLeakedIndex(0, 0, 5));
+  }
+
+  @Test
+  public void testGap() {
+    CoreColumns columns = create(new int[]{0, 0, 2, 2, 10}, new int[]{6, 6, 8, 8, 10});
+    Assert.assertEquals(-1, columns.getLeakedIndex(4, 0, 4));
+    Assert.assertEquals(-1, columns.getLeakedIndex(0, 0, 8));
+    Assert.assertEquals(1, columns.getLeakedIndex(8, 0, 8));
+  }
+
+  @Test
+  public void testOverlapGoesToClosest() {
+    CoreColumns columns = create(new int[]{0, 0, 6, 4, 10}, new int[]{4, 0, 10, 4, 20});
+    Assert.assertEquals(0, columns.getLeakedIndex(4, 10, 2));
+    Assert.assertEquals(1, columns.getLeakedIndex(6, 20, 2));
+    Assert.assertEquals(0, columns.getLeakedIndex(5, 10, 2));
+    Assert.assertEquals(-1, columns.getLeakedIndex(4, 11, 2));
+  }
+
+  @Test
+  public void testFarApart() {
+    CoreColumns columns = create(new int[]{-30000000, -30000000, -29999996, -29999996, 10},
+        new int[]{29999996, 29999996, 30000000, 30000000, 20});
+    Assert.assertEquals(0, columns.getLeakedIndex(-29999998, 10, -30000000));
+    Assert.assertEquals(1, columns.getLeakedIndex(30000000, 20, 29999996));
+    Assert.assertEquals(-1, columns.getLeakedIndex(0, 0, 0));
+  }
+
+  @Test
+  public void testNegativeCoordinates() {
+    CoreColumns columns = create(new int[]{-8, -8, -5, -5, 3});
+    Assert.assertEquals(0, columns.getLeakedIndex(-8, 3, -8));
+    Assert.assertEquals(0, columns.getLeakedIndex(-5, 3, -5));
+    Assert.assertEquals(-1, columns.getLeakedIndex(-4, 3, -5));
+    Assert.assertEquals(-1, columns.getLeakedIndex(-9, 3, -8));
+  }
+
+  private static CoreColumns create(int[]... footprints) {
+    return new CoreColumns(Collections.nCopies(footprints.length, null), footprints);
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.destroyable;
+
+import com.google.common.collect.Lists;
+import org.bukkit.block.Block;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+
+public class DestroyableBlocksTest {
+
+  @Test
+  public void testIndexOf() {
+    List<Block> pieces = Lists.newArrayList(block(0, 10, 0, 49, 0), block(2, 11, -3, 35, 14), block(-1, 12, 5, 1, 0));
+    DestroyableBlocks blocks = new DestroyableBlocks(pieces);
+    Assert.assertEquals(3, blocks.size());
+    for (int i = 0; i < pieces.size(); i++) {
+      Assert.assertEquals(i, blocks.indexOf(pieces.get(i)));
+      Assert.assertEquals(i, blocks.indexOf(block(pieces.get(i).getX(), pieces.get(i).getY(), pieces.get(i).getZ(),
+          0, 0)));
+    }
+  }
+
+  @Test
+  public void testIndexOfMissing() {
+    DestroyableBlocks blocks = new DestroyableBlocks(Lists.newArrayList(block(0, 10, 0, 49, 0),
+        block(2, 11, 2, 49, 0)));
+    Assert.assertEquals(-1, blocks.indexOf(block(1, 10, 1, 49, 0)));
+    Assert.assertEquals(-1, blocks.indexOf(block(-1, 10, 0, 49, 0)));
+    Assert.assertEquals(-1, blocks.indexOf(block(3, 11, 2, 49, 0)));
+    Assert.assertEquals(-1, blocks.indexOf(block(0, 9, 0, 49, 0)));
+    Assert.assertEquals(-1, blocks.indexOf(block(2, 11, 3, 49, 0)));
+  }
+
+  @Test
+  public void testEmpty() {
+    DestroyableBlocks blocks = new DestroyableBlocks(Collections.emptyList());
+    Assert.assertEquals(0, blocks.size());
+    Assert.assertEquals(-1, blocks.indexOf(block(0, 0, 0, 1, 0)));
+  }
+
+  @Test
+  public void testBroken() {
+    DestroyableBlocks blocks = new DestroyableBlocks(Lists.newArrayList(block(0, 0, 0, 49, 0),
+        block(1, 0, 0, 49, 0)));
+    Assert.assertTrue(blocks.setBroken(1, true));
+    Assert.assertFalse(blocks.setBroken(1, true));
+    Assert.assertTrue(blocks.isBroken(1));
+    Assert.assertFalse(blocks.isBroken(0));
+    Assert.assertEquals(1, blocks.getBrokenCount());
+    Assert.assertTrue(blocks.setBroken(0, true));
+    Assert.assertEquals(2, blocks.getBrokenCount());
+    Assert.assertTrue(blocks.setBroken(1, false));
+    Assert.assertFalse(blocks.setBroken(1, false));
+    Assert.assertEquals(1, blocks.getBrokenCount());
+  }
+
+  @Test
+  public void testState() {
+    DestroyableBlocks blocks = new DestroyableBlocks(Lists.newArrayList(block(0, 0, 0, 35, 14),
+        block(0, 1, 0, 49, 0)));
+    Assert.assertEquals(35 << 4 | 14, blocks.getState(0));
+    Assert.assertEquals(49 << 4, blocks.getState(1));
+  }
+
+  private static Block block(int x, int y, int z, int id, int data) {
+    return (Block) Proxy.newProxyInstance(Block.class.getClassLoader(), new Class[]{Block.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getX":
+              return x;
+            case "getY":
+              return y;
+            case "getZ":
+              return z;
+            case "getTypeId":
+              return id;
+            case "getData":
+              return (byte) data;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+}
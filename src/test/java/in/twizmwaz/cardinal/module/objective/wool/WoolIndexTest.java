@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.objective.wool;
+
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+
+public class WoolIndexTest {
+
+  /**
+   * The furthest chunk section from the origin inside the world border.
+   */
+  private static final int LIMIT = 30000000 >> 4;
+
+  @Test
+  public void testSectionsAroundOrigin() {
+    Set<Long> sections = Sets.newHashSet();
+    for (int x = -40; x <= 40; x++) {
+      for (int y = 0; y < 16; y++) {
+        for (int z = -40; z <= 40; z++) {
+          Assert.assertTrue(sections.add(WoolIndex.getSection(x, y, z)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testNegativeCoordinatesDoNotOverlap() {
+    Assert.assertNotEquals(WoolIndex.getSection(-1, 0, 0), WoolIndex.getSection(0, 0, -1));
+    Assert.assertNotEquals(WoolIndex.getSection(-1, 0, 0), WoolIndex.getSection(-1, 0, -1));
+    Assert.assertNotEquals(WoolIndex.getSection(0, 15, 0), WoolIndex.getSection(0, 0, -1));
+    Assert.assertEquals(0, WoolIndex.getSection(0, 0, -1) >>> 30);
+    Assert.assertEquals(0, WoolIndex.getSection(0, 15, -1) >>> 30);
+  }
+
+  @Test
+  public void testSectionsAtBorder() {
+    Set<Long> sections = Sets.newHashSet();
+    for (int x : new int[]{-LIMIT, -LIMIT + 1, -1, 0, LIMIT - 1, LIMIT}) {
+      for (int y : new int[]{0, 15}) {
+        for (int z : new int[]{-LIMIT, -LIMIT + 1, -1, 0, LIMIT - 1, LIMIT}) {
+          Assert.assertTrue(sections.add(WoolIndex.getSection(x, y, z)));
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.module.timer;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class MatchTimerTest {
+
+  private MatchTimer timer;
+  private int tick;
+
+  @Before
+  public void setUp() {
+    timer = new MatchTimer();
+    tick = 0;
+  }
+
+  @Test
+  public void testOnce() {
+    List<Integer> runs = Lists.newArrayList();
+    MatchTimer.Task task = timer.schedule(() -> runs.add(tick), 5);
+    advance(20);
+    Assert.assertEquals(Lists.newArrayList(5), runs);
+    Assert.assertTrue(task.isCancelled());
+  }
+
+  @Test
+  public void testMinimumDelay() {
+    List<Integer> runs = Lists.newArrayList();
+    timer.schedule(() -> runs.add(tick), 0);
+    timer.schedule(() -> runs.add(tick), -3);
+    advance(2);
+    Assert.assertEquals(Lists.newArrayList(1, 1), runs);
+  }
+
+  @Test
+  public void testDelayLongerThanWheel() {
+    List<Integer> runs = Lists.newArrayList();
+    timer.schedule(() -> runs.add(tick), 200);
+    advance(199);
+    Assert.assertTrue(runs.isEmpty());
+    advance(200);
+    Assert.assertEquals(Lists.newArrayList(200), runs);
+  }
+
+  @Test
+  public void testPeriodLongerThanWheel() {
+    List<Integer> runs = Lists.newArrayList();
+    List<Integer> others = Lists.newArrayList();
+    timer.schedule(() -> runs.add(tick), 10, 100);
+    // Runs from the bucket the other task waits in for its second run, which must not run it early
+    timer.schedule(() -> others.add(tick), 46, 64);
+    advance(320);
+    Assert.assertEquals(Lists.newArrayList(10, 110, 210, 310), runs);
+    Assert.assertEquals(Lists.newArrayList(46, 110, 174, 238, 302), others);
+  }
+
+  @Test
+  public void testSeconds() {
+    List<Integer> runs = Lists.newArrayList();
+    timer.scheduleSeconds(() -> runs.add(tick));
+    advance(65);
+    Assert.assertEquals(Lists.newArrayList(20, 40, 60), runs);
+  }
+
+  @Test
+  public void testCancel() {
+    List<Integer> runs = Lists.newArrayList();
+    MatchTimer.Task task = timer.schedule(() -> runs.add(tick), 3, 3);
+    advance(7);
+    task.cancel();
+    advance(30);
+    Assert.assertEquals(Lists.newArrayList(3, 6), runs);
+    Assert.assertTrue(task.isCancelled());
+  }
+
+  @Test
+  public void testCancelFromCallback() {
+    List<Integer> runs = Lists.newArrayList();
+    MatchTimer.Task[] tasks = new MatchTimer.Task[2];
+    tasks[0] = timer.schedule(() -> {
+      runs.add(tick);
+      tasks[1].cancel();
+    }, 4);
+    tasks[1] = timer.schedule(() -> runs.add(-tick), 4);
+    advance(10);
+    Assert.assertEquals(Lists.newArrayList(4), runs);
+  }
+
+  @Test
+  public void testScheduleFromCallback() {
+    List<Integer> runs = Lists.newArrayList();
+    timer.schedule(() -> {
+      runs.add(tick);
+      timer.schedule(() -> runs.add(tick), 64);
+    }, 2);
+    advance(100);
+    Assert.assertEquals(Lists.newArrayList(2, 66), runs);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePeriod() {
+    timer.schedule(() -> {
+    }, 1, -1);
+  }
+
+  private void advance(int to) {
+    while (tick < to) {
+      tick++;
+      timer.tick();
+    }
+  }
+
+}
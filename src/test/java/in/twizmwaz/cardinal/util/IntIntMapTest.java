@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class IntIntMapTest {
+
+  private static final int MISSING = -1;
+
+  @Test
+  public void testPutGet() {
+    IntIntMap map = new IntIntMap(MISSING);
+    map.put(1, 10);
+    map.put(-7, 20);
+    map.put(1, 30);
+    Assert.assertEquals(30, map.get(1));
+    Assert.assertEquals(20, map.get(-7));
+    Assert.assertEquals(MISSING, map.get(2));
+    Assert.assertEquals(2, map.size());
+  }
+
+  @Test
+  public void testZeroKey() {
+    IntIntMap map = new IntIntMap(MISSING);
+    Assert.assertEquals(MISSING, map.get(0));
+    map.put(0, 5);
+    map.put(0, 6);
+    Assert.assertEquals(6, map.get(0));
+    Assert.assertEquals(1, map.size());
+    map.remove(0);
+    map.remove(0);
+    Assert.assertEquals(MISSING, map.get(0));
+    Assert.assertEquals(0, map.size());
+  }
+
+  @Test
+  public void testRemoveWrapsAround() {
+    // Keys whose home is the last slot of the initial table probe past its end into the first slots.
+    List<Integer> last = homedAt(15, 3);
+    List<Integer> first = homedAt(0, 1);
+    IntIntMap map = new IntIntMap(MISSING);
+    for (int key : last) {
+      map.put(key, key * 2);
+    }
+    map.put(first.get(0), 1);
+    map.remove(last.get(0));
+    for (int i = 1; i < last.size(); i++) {
+      Assert.assertEquals(last.get(i) * 2, map.get(last.get(i)));
+    }
+    Assert.assertEquals(1, map.get(first.get(0)));
+    Assert.assertEquals(MISSING, map.get(last.get(0)));
+
+    map.put(last.get(0), 7);
+    map.remove(last.get(2));
+    map.remove(first.get(0));
+    Assert.assertEquals(7, map.get(last.get(0)));
+    Assert.assertEquals(last.get(1) * 2, map.get(last.get(1)));
+    Assert.assertEquals(MISSING, map.get(last.get(2)));
+    Assert.assertEquals(MISSING, map.get(first.get(0)));
+    Assert.assertEquals(2, map.size());
+  }
+
+  @Test
+  public void testGrowth() {
+    IntIntMap map = new IntIntMap(MISSING);
+    for (int i = -500; i < 500; i++) {
+      map.put(i * 31, i);
+    }
+    Assert.assertEquals(1000, map.size());
+    for (int i = -500; i < 500; i++) {
+      Assert.assertEquals(i, map.get(i * 31));
+    }
+    map.clear();
+    Assert.assertEquals(0, map.size());
+    Assert.assertEquals(MISSING, map.get(31));
+  }
+
+  @Test
+  public void testAgainstHashMap() {
+    Random random = new Random(42);
+    IntIntMap map = new IntIntMap(MISSING);
+    Map<Integer, Integer> expected = Maps.newHashMap();
+    for (int i = 0; i < 100000; i++) {
+      int key = random.nextInt(24) - 4;
+      if (random.nextBoolean()) {
+        map.put(key, i);
+        expected.put(key, i);
+      } else {
+        map.remove(key);
+        expected.remove(key);
+      }
+      Assert.assertEquals(expected.size(), map.size());
+      for (int check = -4; check < 20; check++) {
+        Assert.assertEquals((int) expected.getOrDefault(check, MISSING), map.get(check));
+      }
+    }
+  }
+
+  private static List<Integer> homedAt(int slot, int count) {
+    List<Integer> keys = Lists.newArrayList();
+    for (int key = 1; keys.size() < count; key++) {
+      if ((IntIntMap.mix(key) & 15) == slot) {
+        keys.add(key);
+      }
+    }
+    return keys;
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util.document;
+
+import com.google.common.base.Charsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import javax.xml.stream.XMLStreamException;
+
+public class MapElementCodecTest {
+
+  private static final String DOCUMENT = "<map proto=\"1.4.0\">\n"
+      + "  <name>Codec Test</name>\n"
+      + "  <teams>\n"
+      + "    <team id=\"red\" color=\"dark red\" max=\"16\">Red</team>\n"
+      + "    <team id=\"blue\" color=\"blue\" max=\"16\">Blue \u00e9</team>\n"
+      + "  </teams>\n"
+      + "  <regions><cuboid id=\"red\" min=\"0,0,0\" max=\"1,1,1\"/><empty/></regions>\n"
+      + "</map>";
+
+  @Test
+  public void testRoundTrip() throws IOException, XMLStreamException {
+    MapElement root = parse(DOCUMENT);
+    assertEqualTrees(root, MapElementCodec.read(ByteBuffer.wrap(write(root))));
+  }
+
+  @Test
+  public void testReadsFromPosition() throws IOException, XMLStreamException {
+    MapElement root = parse(DOCUMENT);
+    byte[] encoded = write(root);
+    ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 4);
+    buffer.putInt(42).put(encoded).flip();
+    Assert.assertEquals(42, buffer.getInt());
+    assertEqualTrees(root, MapElementCodec.read(buffer));
+    Assert.assertFalse(buffer.hasRemaining());
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncated() throws IOException, XMLStreamException {
+    byte[] encoded = write(parse(DOCUMENT));
+    MapElementCodec.read(ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length / 2)));
+  }
+
+  private static MapElement parse(String document) throws IOException, XMLStreamException {
+    return new MapElementParser().parse(new ByteArrayInputStream(document.getBytes(Charsets.UTF_8)), "test");
+  }
+
+  private static byte[] write(MapElement root) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      MapElementCodec.write(root, out);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void assertEqualTrees(MapElement expected, MapElement actual) {
+    Assert.assertEquals(expected.getName(), actual.getName());
+    Assert.assertEquals(expected.getText(), actual.getText());
+    Assert.assertEquals(expected.getLine(), actual.getLine());
+    Assert.assertEquals(expected.getColumn(), actual.getColumn());
+    Assert.assertEquals(expected.getAttributeCount(), actual.getAttributeCount());
+    for (int i = 0; i < expected.getAttributeCount(); i++) {
+      Assert.assertEquals(expected.getAttributeName(i), actual.getAttributeName(i));
+      Assert.assertEquals(expected.getAttributeValue(i), actual.getAttributeValue(i));
+    }
+    Assert.assertEquals(expected.getChildren().size(), actual.getChildren().size());
+    for (int i = 0; i < expected.getChildren().size(); i++) {
+      assertEqualTrees(expected.getChildren().get(i), actual.getChildren().get(i));
+    }
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016, Kevin Phoenix
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package in.twizmwaz.cardinal.util.document;
+
+import com.google.common.base.Charsets;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import javax.xml.stream.XMLStreamException;
+
+public class MapElementParserTest {
+
+  @Test
+  public void testMixedContent() throws IOException, XMLStreamException {
+    MapElement root = parse("<map><name>Red <b>and</b> Blue</name></map>");
+    MapElement name = root.getChild("name");
+    Assert.assertEquals("Red  Blue", name.getText());
+    Assert.assertEquals(1, name.getChildren().size());
+    Assert.assertEquals("and", name.getChildText("b"));
+    Assert.assertEquals("Red  Blue", MapDocuments.toElement(root).getChild("name").getText());
+  }
+
+  @Test
+  public void testNamespaces() throws IOException, XMLStreamException {
+    MapElement root = parse("<map xmlns:c=\"urn:test\"><c:team c:id=\"red\" id=\"blue\"/></map>");
+    MapElement team = root.getChildren().get(0);
+    Assert.assertEquals("c:team", team.getName());
+    Assert.assertEquals("blue", team.getAttributeValue("id"));
+    Assert.assertEquals("red", team.getAttributeValue("c:id"));
+    Assert.assertEquals("urn:test", root.getAttributeValue("xmlns:c"));
+
+    Element converted = MapDocuments.toElement(root);
+    Namespace namespace = Namespace.getNamespace("c", "urn:test");
+    Assert.assertNull(converted.getAttribute("xmlns:c"));
+    Assert.assertNull(converted.getChild("team"));
+    Element element = converted.getChild("team", namespace);
+    Assert.assertEquals("blue", element.getAttributeValue("id"));
+    Assert.assertEquals("red", element.getAttributeValue("id", namespace));
+  }
+
+  private static MapElement parse(String document) throws IOException, XMLStreamException {
+    return new MapElementParser().parse(new ByteArrayInputStream(document.getBytes(Charsets.UTF_8)), "test");
+  }
+
+}